@@ -0,0 +1,23 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+
+/**
+ * Ponto de entrada do benchmarks.jar: igual ao org.openjdk.jmh.Main, mas grava
+ * os resultados em JSON (bench-results.json) quando -rf/-rff não são passados,
+ * para que duas execuções possam ser comparadas com diff.
+ */
+public final class BenchMain {
+
+    private BenchMain() { }
+
+    public static void main(String[] args) throws Exception {
+        List<String> all = new ArrayList<>(Arrays.asList(args));
+        if (!all.contains("-rf")) all.addAll(List.of("-rf", "json"));
+        if (!all.contains("-rff")) all.addAll(List.of("-rff", "bench-results.json"));
+        Main.main(all.toArray(new String[0]));
+    }
+}
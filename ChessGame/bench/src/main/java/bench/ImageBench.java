@@ -0,0 +1,39 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import javax.swing.ImageIcon;
+import org.openjdk.jmh.annotations.*;
+import view.ImageUtil;
+
+/** ImageUtil.getIcon: acerto no cache LRU e carga + redimensionamento (cache limpo). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ImageBench {
+
+    @Param({"wQ.png", "bN.png"})
+    public String file;
+
+    @Param({"64", "96"})
+    public int size;
+
+    @Setup(Level.Trial)
+    public void warmCache() {
+        ImageUtil.clearCache();
+        ImageUtil.getIcon(file, size);
+    }
+
+    @Benchmark
+    public ImageIcon getIconCached() {
+        return ImageUtil.getIcon(file, size);
+    }
+
+    @Benchmark
+    public ImageIcon getIconScaled() {
+        ImageUtil.clearCache();
+        return ImageUtil.getIcon(file, size);
+    }
+}
@@ -0,0 +1,22 @@
+package bench;
+
+import controller.Game;
+import controller.Perft;
+
+/** Posições usadas pelos benchmarks (selecionadas pelo @Param "position"). */
+final class Positions {
+
+    static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    private Positions() { }
+
+    static Game load(String name) {
+        return switch (name) {
+            case "start" -> Game.fromFen(Perft.START_FEN);
+            case "kiwipete" -> Game.fromFen(KIWIPETE);
+            case "endgame" -> Game.fromFen(ENDGAME);
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        };
+    }
+}
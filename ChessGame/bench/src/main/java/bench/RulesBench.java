@@ -0,0 +1,65 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import controller.Game;
+import model.board.Board;
+import model.board.Position;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Núcleo de regras: cópia do tabuleiro, lances legais por casa e detecção de ataque/xeque. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RulesBench {
+
+    @Param({"start", "kiwipete", "endgame"})
+    public String position;
+
+    private Game game;
+    private Board board;
+    private Position[] ownPieces; // casas das peças do lado que joga
+
+    @Setup
+    public void setup() {
+        game = Positions.load(position);
+        board = game.board();
+        boolean white = game.whiteToMove();
+        ownPieces = new Position[board.pieceCount(white)];
+        int i = 0;
+        for (long bb = board.occupancy(white); bb != 0; bb &= bb - 1) ownPieces[i++] = Position.of(Long.numberOfTrailingZeros(bb));
+    }
+
+    @Benchmark
+    public Board boardCopy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public void legalMovesFrom(Blackhole bh) {
+        for (Position from : ownPieces) {
+            List<Position> moves = game.legalMovesFrom(from);
+            bh.consume(moves);
+        }
+    }
+
+    @Benchmark
+    public int isSquareAttacked() {
+        // Varre as 64 casas contra o lado que não joga
+        boolean byWhite = !game.whiteToMove();
+        int attacked = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            if (game.isSquareAttacked(sq, byWhite)) attacked++;
+        }
+        return attacked;
+    }
+
+    @Benchmark
+    public boolean inCheck() {
+        return game.inCheck(game.whiteToMove());
+    }
+}
@@ -0,0 +1,57 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import controller.ChessAI;
+import controller.Game;
+import model.board.Board;
+import org.openjdk.jmh.annotations.*;
+
+/** Avaliação estática e busca (Negamax Alpha-Beta, aprofundamento iterativo) a profundidade fixa. */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class SearchBench {
+
+    @Param({"start", "kiwipete", "endgame"})
+    public String position;
+
+    @Param({"3", "4"})
+    public int depth;
+
+    private static final int HASH_MB = 16;
+
+    private Game game;
+    private Board board;
+
+    /** IA cuja tabela de transposição é esvaziada antes de cada busca (senão a primeira já resolve as seguintes). */
+    @State(Scope.Thread)
+    public static class ColdHash {
+        final ChessAI ai = new ChessAI(HASH_MB);
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            ai.clearHash();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        game = Positions.load(position);
+        board = game.board();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int evaluateBoard() {
+        return ChessAI.evaluateBoard(board);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int search(ColdHash state) {
+        // make/unmake: o jogo volta à posição inicial ao fim de cada busca (sem livro, sem prazo)
+        return state.ai.search(game, depth, 0, 0);
+    }
+}
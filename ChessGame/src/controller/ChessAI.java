@@ -0,0 +1,308 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import model.board.Board;
+import model.board.Move;
+import model.board.MoveList;
+import model.board.Position;
+
+/**
+ * IA do jogo: livro de aberturas + Negamax com poda Alpha-Beta e
+ * aprofundamento iterativo sobre um {@link RulesEngine}, usando make/unmake
+ * com lances int (ver Move.encode). A busca para num prazo ou num orçamento
+ * de nós e devolve o lance da última iteração completa.
+ * Posições já buscadas ficam numa {@link TranspositionTable}, que persiste
+ * entre as buscas da mesma instância.
+ * Podas por lance nulo, futilidade (direta e reversa), razoring e reduções
+ * de lances tardios (LMR) são ajustáveis em {@link #params()}; os contadores
+ * da última busca ficam em {@link #stats()}.
+ *
+ * Com {@link #setThreads(int)} > 1 a busca é Lazy SMP: threads auxiliares
+ * buscam o mesmo lance em cópias do jogo, com profundidades escalonadas,
+ * compartilhando a tabela de transposição e uma única flag de parada (que
+ * também permite cancelar a busca de fora, ver {@link EngineService}); o
+ * lance jogado é sempre o da thread principal (a que chamou search).
+ *
+ * Não depende da interface gráfica; uma instância faz uma busca por vez
+ * (as threads de cada busca e seu estado são reaproveitados entre buscas).
+ */
+public class ChessAI {
+
+    // Escala da avaliação: peão = 10 (ver PieceSquareTables)
+    public static final int INFINITY = 1_000_000;
+    public static final int MATE = 100_000; // mate em n plies vale MATE - n
+    public static final int MAX_PLY = 64;
+
+    private final Map<Long, Integer> openingBook = new HashMap<>(); // chave Zobrist -> lance (int, ver Move.encode)
+    private final MoveList bookMoves = new MoveList();
+
+    // Tabela de transposição: compartilhada pelas threads, persiste entre as buscas
+    private final TranspositionTable tt;
+    private final SearchParams params = new SearchParams();
+
+    // Contagem de nós compartilhada por todas as threads da busca
+    private final AtomicLong sharedNodes = new AtomicLong();
+
+    // Thread principal (a que chama search) e auxiliares do Lazy SMP
+    private final Searcher main;
+    private Searcher[] helpers = new Searcher[0];
+    private ExecutorService helperPool;
+    private volatile int threads = 1;
+
+    // Resultado da última busca
+    private final SearchStats stats = new SearchStats();
+    private int completedDepth;
+    private int lastScore;
+    private boolean stopped;
+    private long elapsedNanos;
+    private int ponderMove;
+
+    public ChessAI() {
+        this(TranspositionTable.DEFAULT_MB);
+    }
+
+    /** @param hashMegabytes tamanho da tabela de transposição em MB */
+    public ChessAI(int hashMegabytes) {
+        tt = new TranspositionTable(hashMegabytes);
+        main = new Searcher(tt, params, sharedNodes);
+        // Carrega o livro de aberturas
+        loadOpeningBook();
+    }
+
+    public TranspositionTable transpositionTable() { return tt; }
+
+    /** Threads de busca (1 = só a thread que chama search); vale a partir da próxima busca. */
+    public void setThreads(int n) {
+        threads = Math.max(1, n);
+    }
+
+    public int threads() { return threads; }
+
+    private void loadOpeningBook() {
+        // Linhas de abertura (exemplo); cada posição da linha aponta para o lance seguinte.
+        // Indexado pela chave Zobrist, o livro também reconhece transposições.
+        String[] lines = {
+            "e2e4 e7e5 g1f3 b8c6",
+            "e2e4 c7c5 d2d4 c5d4",
+            "d2d4 d7d5 c2c4 e7e6",
+        };
+        for (String line : lines) {
+            Game g = new Game();
+            for (String m : line.split(" ")) {
+                Position from = square(m.substring(0, 2)), to = square(m.substring(2, 4));
+                openingBook.putIfAbsent(g.positionKey(), Move.encode(Board.square(from), Board.square(to), 0, Move.NONE));
+                g.move(from, to, null);
+            }
+        }
+    }
+
+    // "e2" -> Position
+    private static Position square(String s) {
+        return Position.of('8' - s.charAt(1), s.charAt(0) - 'a');
+    }
+
+    // Lance legal com a mesma origem/destino do lance do livro (0 se não houver)
+    private int findLegal(RulesEngine g, int bookMove) {
+        MoveList moves = bookMoves;
+        moves.clear();
+        g.generateLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int m = moves.get(i);
+            if (Move.fromSquare(m) == Move.fromSquare(bookMove) && Move.toSquare(m) == Move.toSquare(bookMove)) return m;
+        }
+        return 0;
+    }
+
+    /**
+     * Melhor lance (int, ver Move.encode) para o lado que joga em `g`, ou 0 se
+     * não houver lances. Usa o livro de aberturas e, fora dele, {@link #search}.
+     *
+     * @param maxDepth profundidade máxima do aprofundamento iterativo
+     * @param timeMillis tempo máximo da busca em ms (0 = sem limite)
+     * @param maxNodes orçamento de nós de todas as threads (0 = sem limite)
+     */
+    public int bestMove(RulesEngine g, int maxDepth, long timeMillis, long maxNodes) {
+        return bestMove(g, maxDepth, timeMillis, maxNodes, new AtomicBoolean());
+    }
+
+    /**
+     * Como {@link #bestMove(RulesEngine, int, long, long)}, cancelável de outra
+     * thread: `stop` é lida a cada nó e, ao ficar true, a busca devolve o lance
+     * da última iteração completa. Também é sinalizada ao fim da busca.
+     */
+    public int bestMove(RulesEngine g, int maxDepth, long timeMillis, long maxNodes, AtomicBoolean stop) {
+        // Tenta movimento do livro de aberturas (validado contra os lances legais)
+        Integer bookMove = openingBook.get(g.positionKey());
+        if (bookMove != null) {
+            int legal = findLegal(g, bookMove);
+            if (legal != 0) {
+                // Lance do livro: sem busca (estatísticas zeradas)
+                stats.clear();
+                completedDepth = 0;
+                lastScore = 0;
+                stopped = false;
+                elapsedNanos = 0;
+                ponderMove = 0;
+                return legal;
+            }
+        }
+        return search(g, maxDepth, timeMillis, maxNodes, stop);
+    }
+
+    /** Busca a profundidade fixa, sem limite de tempo nem de nós. */
+    public int bestMove(RulesEngine g, int depth) {
+        return bestMove(g, depth, 0, 0);
+    }
+
+    /** Esvazia a tabela de transposição e o histórico de ordenação (ex.: novo jogo). */
+    public void clearHash() {
+        tt.clear();
+        main.clearHistory();
+        for (Searcher h : helpers) h.clearHistory();
+    }
+
+    /**
+     * Busca com aprofundamento iterativo até maxDepth (ver Searcher.iterate),
+     * parando no prazo ou no orçamento de nós; a primeira iteração sempre
+     * produz um lance. O jogo é restaurado à posição original no retorno.
+     */
+    public int search(RulesEngine g, int maxDepth, long timeMillis, long maxNodes) {
+        return search(g, maxDepth, timeMillis, maxNodes, new AtomicBoolean());
+    }
+
+    /** Busca cancelável de outra thread pela flag `stop` (ver bestMove). */
+    public int search(RulesEngine g, int maxDepth, long timeMillis, long maxNodes, AtomicBoolean stop) {
+        long start = System.nanoTime();
+        long deadline = timeMillis > 0 ? start + timeMillis * 1_000_000L : Long.MAX_VALUE;
+        long nodeLimit = maxNodes > 0 ? maxNodes : Long.MAX_VALUE;
+        sharedNodes.set(0);
+        tt.newSearch();
+        ensureHelpers();
+
+        // Auxiliares: cada uma no seu jogo, metade começando uma profundidade acima
+        List<Future<?>> running = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            Searcher helper = helpers[i];
+            RulesEngine copy = g.copy();
+            int startDepth = 1 + (i + 1) % 2;
+            running.add(helperPool.submit(() -> helper.iterate(copy, startDepth, maxDepth, deadline, nodeLimit, stop)));
+        }
+
+        // A principal terminou (ou parou): as auxiliares param junto. Uma falha
+        // da principal prevalece; a de uma auxiliar vai junto como suprimida.
+        int move;
+        try {
+            move = main.iterate(g, 1, maxDepth, deadline, nodeLimit, stop);
+        } catch (RuntimeException | Error e) {
+            stop.set(true);
+            IllegalStateException helperFailure = awaitHelpers(running);
+            if (helperFailure != null) e.addSuppressed(helperFailure);
+            throw e;
+        }
+        stop.set(true);
+        IllegalStateException helperFailure = awaitHelpers(running);
+
+        stats.clear();
+        stats.add(main.stats);
+        for (Searcher h : helpers) stats.add(h.stats);
+        completedDepth = main.completedDepth;
+        lastScore = main.lastScore;
+        stopped = main.interrupted;
+        elapsedNanos = System.nanoTime() - start;
+        ponderMove = expectedReply(g, move);
+        // Falha de uma auxiliar: relançada só com o resultado da principal já registrado
+        if (helperFailure != null) throw helperFailure;
+        return move;
+    }
+
+    // Resposta esperada a `move` (2º lance da variante principal): o lance
+    // guardado na tabela de transposição para a posição seguinte, se legal
+    private int expectedReply(RulesEngine g, int move) {
+        if (move == 0) return 0;
+        g.makeMove(move);
+        try {
+            int reply = TranspositionTable.move(tt.probe(g.positionKey()));
+            if (reply == 0) return 0;
+            MoveList moves = bookMoves;
+            moves.clear();
+            g.generateLegalMoves(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                if (moves.get(i) == reply) return reply;
+            }
+            return 0;
+        } finally {
+            g.unmakeMove();
+        }
+    }
+
+    // (Re)cria as auxiliares quando o número de threads muda
+    private void ensureHelpers() {
+        int n = threads - 1;
+        if (helpers.length == n) return;
+        if (helperPool != null) helperPool.shutdown();
+        helpers = new Searcher[n];
+        for (int i = 0; i < n; i++) helpers[i] = new Searcher(tt, params, sharedNodes);
+        helperPool = n == 0 ? null : Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "ChessAI-helper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Espera todas as auxiliares; devolve a falha da primeira que falhou (demais como suprimidas) ou null
+    private static IllegalStateException awaitHelpers(List<Future<?>> running) {
+        IllegalStateException failure = null;
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                if (failure == null) failure = new IllegalStateException("Search helper failed", e.getCause());
+                else failure.addSuppressed(e.getCause());
+            }
+        }
+        return failure;
+    }
+
+    // Função de Avaliação Simples (Material + Posição)
+    public static int evaluateBoard(Board board) {
+        // Somas de material + tabelas de posição mantidas incrementalmente pelo Board;
+        // o score é do ponto de vista das Brancas (positivas = boas para Brancas)
+        return board.evaluate();
+    }
+
+    // --------- Estatísticas da última busca ----------
+    /** Profundidade da última iteração completa da thread principal. */
+    public int completedDepth() { return completedDepth; }
+
+    /** Score da última iteração completa (lado que joga; mate = ±(MATE - ply)). */
+    public int lastScore() { return lastScore; }
+
+    /** Nós de todas as threads. */
+    public long nodes() { return stats.nodes; }
+
+    /** Contadores da última busca, somados entre as threads (podas, rebuscas, tabela de transposição...). */
+    public SearchStats stats() { return stats; }
+
+    /** Parâmetros ajustáveis da busca (valem a partir da próxima busca). */
+    public SearchParams params() { return params; }
+
+    /** True se a última busca parou por prazo ou orçamento de nós. */
+    public boolean stopped() { return stopped; }
+
+    public long elapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+    /** Resposta esperada do adversário ao último lance devolvido (0 = desconhecida), para ponderar. */
+    public int ponderMove() { return ponderMove; }
+}
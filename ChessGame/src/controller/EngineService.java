@@ -0,0 +1,222 @@
+package controller;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serviço de busca de vida longa: uma única thread (daemon) atende pedidos
+ * de busca em fila, sempre com o mesmo {@link ChessAI}, de modo que a tabela
+ * de transposição e o histórico continuam "quentes" entre os lances.
+ *
+ * Cada pedido recebe um número de geração crescente. Um pedido novo, ou
+ * {@link #cancel()}, invalida os anteriores: a busca em andamento é parada
+ * pela sua flag (lida a cada nó) e resultados de gerações antigas são
+ * descartados, nunca entregues. Quem recebe o resultado em outra thread (ex.:
+ * a EDT) deve conferir de novo com {@link #isCurrent(long)} antes de usá-lo,
+ * pois um cancelamento pode chegar depois da entrega.
+ *
+ * Ponderação: {@link #ponder} busca, sem limite de tempo, a posição após a
+ * resposta esperada do adversário ({@link ChessAI#ponderMove()}) enquanto ele
+ * pensa. Se ele jogar esse lance, {@link #ponderHit(long)} aproveita a mesma
+ * busca, agora com prazo contado desde o início da ponderação; se jogar outro,
+ * basta um {@link #submit} normal, que aborta a ponderação e reaproveita a
+ * tabela de transposição já aquecida por ela.
+ */
+public final class EngineService {
+
+    /**
+     * Recebe o resultado de uma busca; chamado na thread do serviço, ou na de
+     * quem chamou ponderHit se a ponderação já terminara.
+     */
+    public interface Listener {
+        void onResult(long generation, Result result);
+    }
+
+    /**
+     * Resultado de uma busca, copiado do {@link ChessAI} na thread do serviço
+     * logo ao fim dela: pode ser lido em qualquer thread, mesmo com outra
+     * busca já em andamento.
+     */
+    public static final class Result {
+        /** Lance escolhido (0 = nenhum/erro). */
+        public final int move;
+        /** Resposta esperada do adversário (ver ChessAI.ponderMove()). */
+        public final int ponderMove;
+        public final int completedDepth;
+        public final int score;
+        public final long elapsedMillis;
+        public final SearchStats stats = new SearchStats();
+
+        Result(int move, ChessAI ai) {
+            this.move = move;
+            this.ponderMove = move != 0 ? ai.ponderMove() : 0;
+            this.completedDepth = ai.completedDepth();
+            this.score = ai.lastScore();
+            this.elapsedMillis = ai.elapsedMillis();
+            stats.add(ai.stats());
+        }
+    }
+
+    private static final class Request {
+        final long generation;
+        final RulesEngine position;
+        final int maxDepth;
+        final Listener listener;
+        final AtomicBoolean stop = new AtomicBoolean();
+
+        // Guardados pelo lock do serviço
+        long timeMillis;
+        boolean pondering;  // resultado retido até ponderHit
+        long startNanos;    // 0 = ainda na fila
+        boolean finished;
+        Result result;
+
+        Request(long generation, RulesEngine position, int maxDepth, long timeMillis, boolean pondering, Listener listener) {
+            this.generation = generation;
+            this.position = position;
+            this.maxDepth = maxDepth;
+            this.timeMillis = timeMillis;
+            this.pondering = pondering;
+            this.listener = listener;
+        }
+    }
+
+    private final ChessAI ai;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Thread thread;
+    private final ScheduledExecutorService clock; // prazo de uma ponderação acertada
+    private volatile Request current; // pedido mais recente (em fila ou em busca)
+
+    public EngineService(ChessAI ai) {
+        this.ai = ai;
+        clock = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ChessAI-clock");
+            t.setDaemon(true);
+            return t;
+        });
+        thread = new Thread(this::run, "ChessAI-engine");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public ChessAI ai() { return ai; }
+
+    /**
+     * Enfileira uma busca sobre uma cópia de `position` e devolve sua geração.
+     * Cancela qualquer busca anterior ainda pendente.
+     */
+    public long submit(RulesEngine position, int maxDepth, long timeMillis, Listener listener) {
+        return enqueue(position, maxDepth, timeMillis, false, listener);
+    }
+
+    /**
+     * Começa a ponderar `position` (já com a resposta esperada jogada), sem
+     * prazo, até maxDepth. O resultado só é entregue após {@link #ponderHit}.
+     */
+    public long ponder(RulesEngine position, int maxDepth, Listener listener) {
+        return enqueue(position, maxDepth, 0, true, listener);
+    }
+
+    /**
+     * O adversário jogou o lance ponderado: a ponderação em andamento vira a
+     * busca do lance, com `timeMillis` contados desde o seu início. Devolve a
+     * geração dessa busca, ou -1 se não há ponderação (use submit).
+     */
+    public long ponderHit(long timeMillis) {
+        Request r;
+        synchronized (this) {
+            r = current;
+            if (r == null || !r.pondering) return -1;
+            r.pondering = false;
+            r.timeMillis = timeMillis;
+            if (!r.finished) {
+                if (r.startNanos != 0 && timeMillis > 0) {
+                    long remaining = timeMillis - (System.nanoTime() - r.startNanos) / 1_000_000L;
+                    if (remaining <= 0) r.stop.set(true);
+                    else clock.schedule(() -> r.stop.set(true), remaining, TimeUnit.MILLISECONDS);
+                }
+                return r.generation; // ainda na fila: buscará com o prazo normal
+            }
+        }
+        // A ponderação já tinha terminado: entrega o lance agora
+        deliver(r, r.result);
+        return r.generation;
+    }
+
+    private synchronized long enqueue(RulesEngine position, int maxDepth, long timeMillis, boolean pondering, Listener listener) {
+        long gen = generation.incrementAndGet();
+        Request previous = current;
+        if (previous != null) previous.stop.set(true);
+        Request r = new Request(gen, position.copy(), maxDepth, timeMillis, pondering, listener);
+        current = r;
+        queue.add(r);
+        return gen;
+    }
+
+    /** Invalida todos os pedidos feitos até aqui e para a busca em andamento. */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        Request previous = current;
+        if (previous != null) previous.stop.set(true);
+        current = null;
+    }
+
+    /** True se `gen` ainda é a geração do último pedido (não foi substituído nem cancelado). */
+    public boolean isCurrent(long gen) {
+        return generation.get() == gen;
+    }
+
+    /** Encerra a thread do serviço (a busca em andamento é interrompida). */
+    public void shutdown() {
+        cancel();
+        thread.interrupt();
+        clock.shutdownNow();
+    }
+
+    private void run() {
+        while (true) {
+            Request r;
+            try {
+                r = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long timeMillis;
+            synchronized (this) {
+                if (!isCurrent(r.generation)) continue; // substituído antes de começar
+                r.startNanos = System.nanoTime();
+                timeMillis = r.pondering ? 0 : r.timeMillis;
+            }
+
+            int move = 0;
+            try {
+                move = ai.bestMove(r.position, r.maxDepth, timeMillis, 0, r.stop);
+            } catch (RuntimeException ex) {
+                System.err.println("Erro na execução da IA: " + ex);
+            }
+            Result result = new Result(move, ai); // ainda nesta thread, antes da próxima busca
+            synchronized (this) {
+                if (!isCurrent(r.generation)) continue; // cancelado durante a busca
+                r.finished = true;
+                r.result = result;
+                if (r.pondering) continue; // aguarda ponderHit (ou o cancelamento)
+            }
+            deliver(r, result);
+        }
+    }
+
+    private void deliver(Request r, Result result) {
+        if (!isCurrent(r.generation)) return;
+        try {
+            r.listener.onResult(r.generation, result);
+        } catch (RuntimeException ex) {
+            System.err.println("Erro ao entregar o lance da IA: " + ex);
+        }
+    }
+}
@@ -1,21 +1,26 @@
 package controller;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import model.board.Attacks;
 import model.board.Board;
+import model.board.Move;
+import model.board.MoveList;
 import model.board.Position;
+import model.board.Zobrist;
 import model.pieces.*;
 
-public class Game {
+public class Game implements RulesEngine {
     public static void main(String[] args) {
         Game game = new Game();
         System.out.println("Estado inicial do tabuleiro:");
         imprimirTabuleiro(game);
 
         // Exemplo: faz um movimento das brancas (e2 para e4)
-        Position from = new Position(6, 4); // e2
-        Position to = new Position(4, 4);   // e4
+        Position from = Position.of(6, 4); // e2
+        Position to = Position.of(4, 4);   // e4
         game.move(from, to, null);
 
         System.out.println("\nTabuleiro após o movimento e2-e4:");
@@ -26,7 +31,7 @@ public class Game {
         for (int row = 0; row < 8; row++) {
             System.out.print((8 - row) + " ");
             for (int col = 0; col < 8; col++) {
-                Piece p = game.board().get(new Position(row, col));
+                Piece p = game.board().get(Position.of(row, col));
                 if (p == null) {
                     System.out.print(". ");
                 } else {
@@ -49,14 +54,125 @@ public class Game {
 
     private final List<String> history = new ArrayList<>();
 
+    // Zobrist terms not covered by Board.zobristKey(): side to move, castling rights, en-passant file
+    private long stateKey = 0L;
+
+    /** Castling-right bits of {@link #castlingRights()}. */
+    public static final int WHITE_KINGSIDE = 1, WHITE_QUEENSIDE = 2, BLACK_KINGSIDE = 4, BLACK_QUEENSIDE = 8;
+    // Rights kept after a move touching each square (king/rook home squares clear their bits)
+    private static final int[] CASTLE_MASK = new int[64];
+    static {
+        Arrays.fill(CASTLE_MASK, 15);
+        CASTLE_MASK[Board.square(7, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLE_MASK[Board.square(7, 7)] &= ~WHITE_KINGSIDE;
+        CASTLE_MASK[Board.square(7, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLE_MASK[Board.square(0, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLE_MASK[Board.square(0, 7)] &= ~BLACK_KINGSIDE;
+        CASTLE_MASK[Board.square(0, 0)] &= ~BLACK_QUEENSIDE;
+    }
+    private int castlingRights = 0;
+
+    // Rows 0 and 7 (a pawn reaching them promotes)
+    private static final long PROMOTION_RANKS = 0xFFL | 0xFFL << 56;
+
+    // Check/pin masks of the side to move (see computeMasks), invalidated on every board change
+    private boolean masksValid = false;
+    private long checkers, checkMask, pinned;
+    private final long[] pinLine = new long[64];
+
+    // Legal moves and status of the current position, computed on first use and
+    // invalidated (together with the masks) whenever the position changes
+    private boolean statusValid = false;
+    private GameStatus status;
+    private final MoveList legalMoves = new MoveList();
+
+    // Undo stack for makeMove/unmakeMove (fixed size, parallel arrays)
+    private static final int MAX_UNDO = 1024;
+    private static final int CASTLE = 1, NULL_MOVE = 2;
+    private final Position[] undoFrom = new Position[MAX_UNDO];
+    private final Position[] undoTo = new Position[MAX_UNDO];
+    private final Piece[] undoPiece = new Piece[MAX_UNDO];
+    private final Piece[] undoCaptured = new Piece[MAX_UNDO];
+    private final Position[] undoCapturedAt = new Position[MAX_UNDO];
+    private final Position[] undoEnPassant = new Position[MAX_UNDO];
+    private final int[] undoFlags = new int[MAX_UNDO];
+    private final long[] undoStateKey = new long[MAX_UNDO];
+    private final int[] undoCastlingRights = new int[MAX_UNDO];
+    private int undoTop = 0;
+
     // Public ctor (starts a fresh game)
     public Game() {
         this.board = new Board();
         setupPieces();
+        castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+        resetStateKey();
+    }
+
+    // Used by copy() and fromFen(): the board is already set up
+    private Game(Board board) {
+        this.board = board;
     }
 
-    // Private ctor used for snapshots (no setup)
-    private Game(boolean empty) { /* intentionally empty */ }
+    /**
+     * Game set up from a FEN string: piece placement, side to move, castling
+     * rights and en-passant square. The move clocks, if present, are ignored.
+     */
+    public static Game fromFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) throw new IllegalArgumentException("Invalid FEN: " + fen);
+        Game g = new Game(new Board());
+
+        int row = 0, col = 0;
+        for (char ch : fields[0].toCharArray()) {
+            if (ch == '/') {
+                row++;
+                col = 0;
+            } else if (ch >= '1' && ch <= '8') {
+                col += ch - '0';
+            } else {
+                int type = "PNBRQK".indexOf(Character.toUpperCase(ch));
+                if (type < 0 || row > 7 || col > 7) throw new IllegalArgumentException("Invalid FEN placement: " + fields[0]);
+                g.board.set(Board.square(row, col++), Piece.of(type, Character.isUpperCase(ch)));
+            }
+        }
+
+        if (!fields[1].equals("w") && !fields[1].equals("b")) throw new IllegalArgumentException("Invalid side to move: " + fields[1]);
+        g.whiteToMove = fields[1].equals("w");
+
+        for (char ch : fields[2].toCharArray()) {
+            switch (ch) {
+                case 'K' -> g.castlingRights |= WHITE_KINGSIDE;
+                case 'Q' -> g.castlingRights |= WHITE_QUEENSIDE;
+                case 'k' -> g.castlingRights |= BLACK_KINGSIDE;
+                case 'q' -> g.castlingRights |= BLACK_QUEENSIDE;
+                case '-' -> { }
+                default -> throw new IllegalArgumentException("Invalid castling field: " + fields[2]);
+            }
+        }
+
+        if (!fields[3].equals("-")) {
+            String ep = fields[3];
+            if (ep.length() != 2) throw new IllegalArgumentException("Invalid en-passant square: " + ep);
+            Position p = Position.of('8' - ep.charAt(1), ep.charAt(0) - 'a');
+            if (!p.isValid()) throw new IllegalArgumentException("Invalid en-passant square: " + ep);
+            g.enPassantTarget = p;
+        }
+
+        g.resetStateKey();
+        return g;
+    }
+
+    /** Independent copy of the current position and history; the undo stack starts empty. */
+    public Game copy() {
+        Game g = new Game(board.copy());
+        g.whiteToMove = whiteToMove;
+        g.gameOver = gameOver;
+        g.enPassantTarget = enPassantTarget;
+        g.history.addAll(history);
+        g.stateKey = stateKey;
+        g.castlingRights = castlingRights;
+        return g;
+    }
 
     // --------- Public getters ----------
     public Board board() { return board; }
@@ -64,6 +180,15 @@ public class Game {
     public boolean isGameOver() { return gameOver; }
     public List<String> history() { return Collections.unmodifiableList(history); }
 
+    /**
+     * 64-bit Zobrist key of the current position: piece placement, side to
+     * move, castling rights and en-passant file. Maintained incrementally.
+     */
+    public long positionKey() { return board.zobristKey() ^ stateKey; }
+
+    /** Remaining castling rights as a 4-bit mask (WHITE_KINGSIDE | ... | BLACK_QUEENSIDE). */
+    public int castlingRights() { return castlingRights; }
+
     // --------- New game ----------
     public void newGame() {
         this.board = new Board();
@@ -71,7 +196,12 @@ public class Game {
         this.gameOver = false;
         this.enPassantTarget = null;
         this.history.clear();
+        this.undoTop = 0;
+        this.masksValid = false;
+        this.statusValid = false;
         setupPieces();
+        this.castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+        resetStateKey();
     }
 
     // --------- Query legal moves ----------
@@ -97,425 +227,468 @@ public class Game {
         List<Position> legal = legalMovesFromWithSpecials(from);
         if (!legal.contains(to)) return;
 
-        boolean isKing = p instanceof King;
-        boolean isPawn = p instanceof Pawn;
-        int dCol = Math.abs(to.getColumn() - from.getColumn());
-
         Piece capturedBefore = board.get(to); // for SAN-ish history
         boolean targetIsKing = (capturedBefore instanceof King);
+        boolean isPawn = p instanceof Pawn;
 
-        // ------- Castling (already validated in legal moves) -------
-        if (isKing && dCol == 2) {
-            int row = from.getRow();
-            // Move king
-            board.set(to, p);
-            board.set(from, null);
-            p.setMoved(true);
-
-            String san;
-            if (to.getColumn() == 6) {
-                // Short castle: rook h->f
-                Piece rook = board.get(new Position(row, 7));
-                board.set(new Position(row, 5), rook);
-                board.set(new Position(row, 7), null);
-                if (rook != null) rook.setMoved(true);
-                san = "O-O";
-            } else {
-                // Long castle: rook a->d
-                Piece rook = board.get(new Position(row, 0));
-                board.set(new Position(row, 3), rook);
-                board.set(new Position(row, 0), null);
-                if (rook != null) rook.setMoved(true);
-                san = "O-O-O";
-            }
+        String moveStr;
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            moveStr = (to.getColumn() == 6) ? "O-O" : "O-O-O";
+        } else if (isPawn && from.getColumn() != to.getColumn() && capturedBefore == null
+                && to.equals(enPassantTarget)) {
+            moveStr = coord(from) + "x" + coord(to) + " e.p.";
+        } else {
+            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to);
+            if (isPawn && isPromotion(from, to)) moveStr += "=" + promotionSymbol(promotion);
+        }
 
-            enPassantTarget = null;
-            // Switch side
-            whiteToMove = !whiteToMove;
-
-            // annotate + or #
-            if (isCheckmate(whiteToMove)) {
-                san += "#";
-                gameOver = true;
-            } else if (inCheck(whiteToMove)) {
-                san += "+";
-            }
-            addHistory(san);
+        makeMove(from, to, promotion);
+        // Lances confirmados não são desfeitos: a pilha de undo fica livre para a busca
+        undoTop = 0;
 
-            if (!gameOver) checkGameEnd();
+        // >>> segurança: se capturamos um Rei (não deveria acontecer), termina imediatamente
+        if (targetIsKing) {
+            addHistory(moveStr + "#");
+            gameOver = true;
             return;
         }
 
-        // ------- En Passant (already validated in legal moves) -------
-        boolean diagonal = from.getColumn() != to.getColumn();
-        boolean toIsEmpty = board.get(to) == null;
-        boolean isEnPassant = isPawn && diagonal && toIsEmpty && to.equals(enPassantTarget);
-
-        String moveStr;
-
-        if (isEnPassant) {
-            // Move pawn to target
-            board.set(to, p);
-            board.set(from, null);
-            // Remove the pawn that moved two squares last turn (victim behind target)
-            int dir = p.isWhite() ? 1 : -1;
-            Position victim = new Position(to.getRow() + dir, to.getColumn());
-            board.set(victim, null);
-            p.setMoved(true);
-            moveStr = coord(from) + "x" + coord(to) + " e.p.";
-            enPassantTarget = null;
+        // annotate + or # (one status computation serves both and the end-of-game check)
+        GameStatus st = status();
+        if (st == GameStatus.CHECKMATE) {
+            moveStr += "#";
+            gameOver = true;
+        } else if (st == GameStatus.CHECK) {
+            moveStr += "+";
+        }
 
-            // Switch side
-            whiteToMove = !whiteToMove;
+        addHistory(moveStr);
+        if (!gameOver) checkGameEnd();
+    }
 
-            // annotate + or #
-            if (isCheckmate(whiteToMove)) {
-                moveStr += "#";
-                gameOver = true;
-            } else if (inCheck(whiteToMove)) {
-                moveStr += "+";
-            }
-            addHistory(moveStr);
+    // --------- Make / unmake (in place, no legality checks) ----------
 
-            if (!gameOver) checkGameEnd();
-            return;
+    /**
+     * Applies a (pseudo-)legal move directly on this game's board, including
+     * castling rook moves, en passant and promotion (auto-queen if promotion
+     * is null). Everything needed to revert it is pushed on the undo stack.
+     * No history entry and no game-end detection: see {@link #move}.
+     */
+    public void makeMove(Position from, Position to, Character promotion) {
+        if (undoTop == MAX_UNDO) throw new IllegalStateException("Undo stack overflow");
+        Piece p = board.get(from);
+        boolean isPawn = p instanceof Pawn;
+        boolean promotes = isPawn && isPromotion(from, to);
+
+        int u = undoTop++;
+        undoFrom[u] = from;
+        undoTo[u] = to;
+        undoPiece[u] = p;
+        undoEnPassant[u] = enPassantTarget;
+        undoStateKey[u] = stateKey;
+        undoCastlingRights[u] = castlingRights;
+        int flags = 0;
+        stateKey ^= enPassantKey(whiteToMove);
+        masksValid = false;
+        statusValid = false;
+
+        // Captured piece (en passant: the victim sits behind the target square)
+        Position capturedAt = to;
+        Piece captured = board.get(to);
+        if (isPawn && captured == null && from.getColumn() != to.getColumn() && to.equals(enPassantTarget)) {
+            capturedAt = Position.of(from.getRow(), to.getColumn());
+            captured = board.get(capturedAt);
         }
-
-        // ------- Promotion (auto-queen if promotion is null) -------
-        if (isPawn && isPromotion(from, to)) {
-            char ch = (promotion == null) ? 'Q' : Character.toUpperCase(promotion);
-            Piece np = switch (ch) {
-                case 'R' -> new Rook(board, p.isWhite());
-                case 'B' -> new Bishop(board, p.isWhite());
-                case 'N' -> new Knight(board, p.isWhite());
-                default  -> new Queen(board, p.isWhite());
+        undoCaptured[u] = captured;
+        undoCapturedAt[u] = capturedAt;
+        if (captured != null) board.remove(capturedAt);
+
+        // Base move (promotion replaces the pawn)
+        board.remove(from);
+        if (promotes) {
+            int type = switch (promotionSymbol(promotion)) {
+                case 'R' -> Piece.ROOK;
+                case 'B' -> Piece.BISHOP;
+                case 'N' -> Piece.KNIGHT;
+                default  -> Piece.QUEEN;
             };
-            np.setMoved(true);
-            board.set(from, null);
-            board.set(to, np);
-
-            // >>> segurança: se, por algum motivo, havia um Rei na casa alvo (não deveria), termina
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "=" + np.getSymbol() + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
-            }
-
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to) + "=" + np.getSymbol();
+            board.set(to, Piece.of(type, p.isWhite()));
         } else {
-            // Normal move / capture
             board.set(to, p);
-            board.set(from, null);
-            p.setMoved(true);
-
-            // >>> segurança: se capturamos um Rei (não deveria acontecer), termina imediatamente
-            if (targetIsKing) {
-                String san = coord(from) + "x" + coord(to) + "#";
-                addHistory(san);
-                gameOver = true;
-                return;
-            }
+        }
 
-            moveStr = coord(from) + (capturedBefore != null ? "x" : "-") + coord(to);
+        // Castling: the king moved two columns, bring the rook along
+        if (p instanceof King && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            int row = from.getRow();
+            Position rookFrom = Position.of(row, to.getColumn() == 6 ? 7 : 0);
+            Position rookTo = Position.of(row, to.getColumn() == 6 ? 5 : 3);
+            Piece rook = board.remove(rookFrom);
+            if (rook != null) board.set(rookTo, rook);
+            flags |= CASTLE;
         }
+        undoFlags[u] = flags;
 
-        // ------- En-passant availability after a double pawn push -------
+        // En-passant availability after a double pawn push
         if (isPawn && Math.abs(to.getRow() - from.getRow()) == 2) {
-            int mid = (to.getRow() + from.getRow()) / 2;
-            enPassantTarget = new Position(mid, from.getColumn());
+            enPassantTarget = Position.of((to.getRow() + from.getRow()) / 2, from.getColumn());
+            stateKey ^= enPassantKey(!whiteToMove);
         } else {
             enPassantTarget = null;
         }
 
-        // Switch side
+        // A king or rook leaving its home square, or a capture landing on it, drops the matching rights
+        int rights = castlingRights & CASTLE_MASK[Board.square(from)] & CASTLE_MASK[Board.square(to)];
+        if (rights != castlingRights) {
+            stateKey ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+            castlingRights = rights;
+        }
+
         whiteToMove = !whiteToMove;
+        stateKey ^= Zobrist.blackToMove();
+    }
 
-        // annotate + or #
-        if (isCheckmate(whiteToMove)) {
-            moveStr += "#";
-            gameOver = true;
-        } else if (inCheck(whiteToMove)) {
-            moveStr += "+";
+    /** int-encoded variant of {@link #makeMove(Position, Position, Character)}. */
+    public void makeMove(int move) {
+        int from = Move.fromSquare(move), to = Move.toSquare(move);
+        makeMove(Position.of(from), Position.of(to), Move.promotionSymbol(move));
+    }
+
+    /** Reverts the last {@link #makeMove}. */
+    public void unmakeMove() {
+        if (undoTop == 0) throw new IllegalStateException("Undo stack is empty");
+        int u = --undoTop;
+        Position from = undoFrom[u], to = undoTo[u];
+        Piece p = undoPiece[u];
+        int flags = undoFlags[u];
+
+        whiteToMove = !whiteToMove;
+        enPassantTarget = undoEnPassant[u];
+        masksValid = false;
+        statusValid = false;
+        stateKey = undoStateKey[u];
+        castlingRights = undoCastlingRights[u];
+
+        if ((flags & CASTLE) != 0) {
+            int row = from.getRow();
+            Position rookFrom = Position.of(row, to.getColumn() == 6 ? 7 : 0);
+            Position rookTo = Position.of(row, to.getColumn() == 6 ? 5 : 3);
+            Piece rook = board.remove(rookTo);
+            if (rook != null) board.set(rookFrom, rook);
         }
 
-        addHistory(moveStr);
-        if (!gameOver) checkGameEnd();
+        board.remove(to);
+        board.set(from, p);
+
+        Piece captured = undoCaptured[u];
+        if (captured != null) board.set(undoCapturedAt[u], captured);
+
+        // Drop references so the stack does not keep pieces alive
+        undoPiece[u] = undoCaptured[u] = null;
+    }
+
+    /**
+     * Passes the turn without moving a piece ("null move", used by the search
+     * for pruning). Only valid when the side to move is not in check; revert
+     * it with {@link #unmakeNullMove()}.
+     */
+    public void makeNullMove() {
+        if (undoTop == MAX_UNDO) throw new IllegalStateException("Undo stack overflow");
+        int u = undoTop++;
+        undoEnPassant[u] = enPassantTarget;
+        undoStateKey[u] = stateKey;
+        undoCastlingRights[u] = castlingRights;
+        undoFlags[u] = NULL_MOVE;
+
+        stateKey ^= enPassantKey(whiteToMove);
+        enPassantTarget = null;
+        masksValid = false;
+        statusValid = false;
+        whiteToMove = !whiteToMove;
+        stateKey ^= Zobrist.blackToMove();
+    }
+
+    /** Reverts the last {@link #makeNullMove()}. */
+    public void unmakeNullMove() {
+        if (undoTop == 0 || undoFlags[undoTop - 1] != NULL_MOVE) throw new IllegalStateException("No null move to undo");
+        int u = --undoTop;
+        whiteToMove = !whiteToMove;
+        enPassantTarget = undoEnPassant[u];
+        masksValid = false;
+        statusValid = false;
+        stateKey = undoStateKey[u];
     }
 
     // --------- Checks / mates ----------
     public boolean inCheck(boolean whiteSide) {
-        Position k = findKing(whiteSide);
+        int king = board.kingSquare(whiteSide);
         // Se o rei não existe no tabuleiro, trate como "em xeque" (estado inválido/terminal).
-        if (k == null) return true;
-        return isSquareAttacked(k, whiteSide);
+        if (king < 0) return true;
+        return attackersTo(king, !whiteSide, board.occupancy()) != 0;
     }
 
+    /** True if any piece of color `byWhite` attacks square `sq` (0 = a8 ... 63 = h1). */
+    public boolean isSquareAttacked(int sq, boolean byWhite) {
+        return attackersTo(sq, byWhite, board.occupancy()) != 0;
+    }
+
+    /**
+     * True if `whiteSide` is checkmated: it is the side to move, is in check
+     * and has no legal move. The side not to move is never mated (it has no
+     * moves to generate here, and a check against it is not a mate).
+     */
     public boolean isCheckmate(boolean whiteSide) {
-        if (!inCheck(whiteSide)) return false;
+        return whiteSide == whiteToMove && status() == GameStatus.CHECKMATE;
+    }
 
-        // If the side has any legal move that avoids check, it's not mate
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position from = new Position(row, col);
-                Piece piece = board.get(from);
-                if (piece != null && piece.isWhite() == whiteSide) {
-                    for (Position to : legalMovesFromWithSpecials(from)) {
-                        Game g = snapshotShallow();
-                        g.forceMoveNoChecks(from, to);
-                        if (!g.inCheck(whiteSide)) return false;
-                    }
-                }
-            }
+    /**
+     * Check / mate / stalemate status of the side to move. Computed once per
+     * position together with {@link #allLegalMoves()} and cached until the
+     * next move, unmake or newGame.
+     */
+    public GameStatus status() {
+        if (!statusValid) {
+            legalMoves.clear();
+            generateLegalMoves(legalMoves);
+            boolean check = inCheck(whiteToMove);
+            if (legalMoves.isEmpty()) status = check ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+            else status = check ? GameStatus.CHECK : GameStatus.ONGOING;
+            statusValid = true;
         }
-        return true;
+        return status;
+    }
+
+    /**
+     * All legal moves of the side to move (int-encoded), cached with
+     * {@link #status()}. The list is owned by the game: read it, do not modify
+     * it, and do not keep it across moves.
+     */
+    public MoveList allLegalMoves() {
+        status();
+        return legalMoves;
     }
 
     private void checkGameEnd() {
+        GameStatus st = status();
         // Checkmate
-        if (isCheckmate(whiteToMove)) {
+        if (st == GameStatus.CHECKMATE) {
             gameOver = true;
             addHistory("Checkmate: " + (whiteToMove ? "White" : "Black") + " loses");
             return;
         }
 
         // Stalemate: no legal moves and not in check
-        if (!inCheck(whiteToMove)) {
-            boolean hasAny = false;
-            for (int r = 0; r < 8 && !hasAny; r++) {
-                for (int c = 0; c < 8 && !hasAny; c++) {
-                    Position from = new Position(r, c);
-                    Piece piece = board.get(from);
-                    if (piece != null && piece.isWhite() == whiteToMove) {
-                        if (!legalMovesFromWithSpecials(from).isEmpty()) {
-                            hasAny = true;
-                        }
-                    }
-                }
-            }
-            if (!hasAny) {
-                gameOver = true;
-                addHistory("Draw: stalemate");
-            }
+        if (st == GameStatus.STALEMATE) {
+            gameOver = true;
+            addHistory("Draw: stalemate");
         }
     }
 
-    // --------- Helpers: legality & attack maps ----------
+    // --------- Legal move generation (check & pin masks) ----------
+
     private List<Position> legalMovesFromWithSpecials(Position from) {
         Piece p = board.get(from);
         if (p == null || p.isWhite() != whiteToMove) return List.of();
 
-        List<Position> moves = new ArrayList<>(p.getPossibleMoves());
-
-        // En Passant candidate square
-        if (p instanceof Pawn && enPassantTarget != null) {
-            int dir = p.isWhite() ? -1 : 1; // white pawns go up (row--), so attack is -1
-            if (from.getRow() + dir == enPassantTarget.getRow()
-                    && Math.abs(from.getColumn() - enPassantTarget.getColumn()) == 1) {
-                // Ensure there is an enemy pawn on the square behind target
-                Piece victim = board.get(new Position(enPassantTarget.getRow() - dir, enPassantTarget.getColumn()));
-                if (victim instanceof Pawn && victim.isWhite() != p.isWhite()) {
-                    moves.add(enPassantTarget);
-                }
-            }
+        List<Position> moves = new ArrayList<>();
+        for (long bb = legalTargets(Board.square(from)); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            moves.add(Position.of(sq));
         }
-
-        // Castling candidates (king not moved, not in check, path empty, pass squares not attacked)
-        if (p instanceof King && !p.hasMoved() && !inCheck(p.isWhite())) {
-            int row = from.getRow();
-            // Short castle to g-file (col 6)
-            if (canCastle(row, 4, 7, 5, 6, p.isWhite())) moves.add(new Position(row, 6));
-            // Long castle to c-file (col 2)
-            if (canCastle(row, 4, 0, 3, 2, p.isWhite())) moves.add(new Position(row, 2));
-        }
-
-        // >>> NUNCA permitir "capturar" Rei inimigo
-        moves.removeIf(to -> {
-            Piece tgt = board.get(to);
-            return (tgt instanceof King) && (tgt.isWhite() != p.isWhite());
-        });
-
-        // Filter out moves que deixam o próprio rei em xeque
-        moves.removeIf(to -> leavesKingInCheck(from, to));
         return moves;
     }
 
-    private boolean canCastle(int row, int kingCol, int rookCol, int passCol1, int passCol2, boolean whiteSide) {
-        Piece rook = board.get(new Position(row, rookCol));
-        if (!(rook instanceof Rook) || rook.hasMoved()) return false;
-
-        // Path between king and rook must be empty
-        int step = (rookCol > kingCol) ? 1 : -1;
-        for (int c = kingCol + step; c != rookCol; c += step) {
-            if (board.get(new Position(row, c)) != null) return false;
-        }
-
-        // Squares king passes through (and destination) must not be attacked
-        Position p1 = new Position(row, passCol1);
-        Position p2 = new Position(row, passCol2);
-        if (isSquareAttacked(p1, whiteSide) || isSquareAttacked(p2, whiteSide)) return false;
-
-        return true;
+    /**
+     * Appends every legal move of the side to move to `out`, int-encoded
+     * (see Move.encode). Promotions are expanded into the four piece types.
+     */
+    public void generateLegalMoves(MoveList out) {
+        generate(out, false);
     }
 
-    private boolean leavesKingInCheck(Position from, Position to) {
-        Piece mover = board.get(from);
-        if (mover == null) return true;
+    /**
+     * Appends only the legal captures (en passant included) and promotions of
+     * the side to move, e.g. for a quiescence search.
+     */
+    public void generateLegalCaptures(MoveList out) {
+        generate(out, true);
+    }
 
-        Game g = snapshotShallow();
-        g.forceMoveNoChecks(from, to);
-        return g.inCheck(mover.isWhite());
+    private void generate(MoveList out, boolean tacticalOnly) {
+        long enemy = board.occupancy(!whiteToMove);
+        int epSq = enPassantTarget == null ? -1 : Board.square(enPassantTarget);
+        // Squares a tactical move may reach: enemy pieces, plus en passant / last ranks for pawns
+        long pawnTactical = enemy | PROMOTION_RANKS | (epSq < 0 ? 0L : 1L << epSq);
+        for (long pieces = board.occupancy(whiteToMove); pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            Piece p = board.get(from);
+            long targets = legalTargets(from);
+            if (tacticalOnly) targets &= p instanceof Pawn ? pawnTactical : enemy;
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                int flags = (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.NONE;
+                if (p instanceof Pawn) {
+                    if (to == epSq) {
+                        out.add(Move.encode(from, to, 0, Move.CAPTURE | Move.EN_PASSANT));
+                    } else if ((to >>> 3) == 0 || (to >>> 3) == 7) {
+                        for (int promo = Piece.QUEEN; promo >= Piece.KNIGHT; promo--) {
+                            out.add(Move.encode(from, to, promo, flags));
+                        }
+                    } else {
+                        out.add(Move.encode(from, to, 0, flags));
+                    }
+                } else if (p instanceof King && Math.abs((to & 7) - (from & 7)) == 2) {
+                    out.add(Move.encode(from, to, 0, Move.CASTLE));
+                } else {
+                    out.add(Move.encode(from, to, 0, flags));
+                }
+            }
+        }
     }
 
     /**
-     * True se `sq` está atacada por QUALQUER peça do lado oposto a `sideToProtect`.
-     * Implementa padrões de ataque corretos para peão/cavalo/rei/deslizantes.
+     * Computes, once per position, the pieces giving check, the squares that
+     * resolve a single check (checker + blocking squares) and the pinned
+     * pieces of the side to move together with the line each one may use.
      */
-    private boolean isSquareAttacked(Position sq, boolean sideToProtect) {
-        int r = sq.getRow(), c = sq.getColumn();
-
-        // 1) Ataques de peão (peão inimigo estaria uma linha "atrás" da sq na direção dele)
-        int dir = sideToProtect ? -1 : 1; // protegendo brancas => peões pretos atacam +1 (descendo)
-        int rp = r - dir;
-        if (rp >= 0 && rp < 8) {
-            if (c - 1 >= 0) {
-                Piece p = board.get(new Position(rp, c - 1));
-                if (p instanceof Pawn && p.isWhite() != sideToProtect) return true;
-            }
-            if (c + 1 < 8) {
-                Piece p = board.get(new Position(rp, c + 1));
-                if (p instanceof Pawn && p.isWhite() != sideToProtect) return true;
-            }
+    private void computeMasks() {
+        if (masksValid) return;
+        masksValid = true;
+
+        boolean us = whiteToMove, them = !whiteToMove;
+        int k = board.kingSquare(us);
+        pinned = 0L;
+        if (k < 0) {                  // invalid position: no restriction beyond pseudo-legality
+            checkers = 0L;
+            checkMask = ~0L;
+            return;
         }
-
-        // 2) Ataques de cavalo
-        int[][] KJUMPS = {{-2,-1},{-2,1},{-1,-2},{-1,2},{1,-2},{1,2},{2,-1},{2,1}};
-        for (int[] d : KJUMPS) {
-            int rr = r + d[0], cc = c + d[1];
-            if (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p instanceof Knight && p.isWhite() != sideToProtect) return true;
-            }
+        long occ = board.occupancy();
+
+        checkers = attackersTo(k, them, occ);
+        if (checkers == 0) {
+            checkMask = ~0L;
+        } else if (Long.bitCount(checkers) == 1) {
+            int c = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Attacks.between(k, c); // capture the checker or block its ray
+        } else {
+            checkMask = 0L;                               // double check: only the king may move
         }
 
-        // 3) Ataques do rei (adjacentes)
-        for (int dr=-1; dr<=1; dr++) for (int dc=-1; dc<=1; dc++) {
-            if (dr==0 && dc==0) continue;
-            int rr = r+dr, cc = c+dc;
-            if (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p instanceof King && p.isWhite() != sideToProtect) return true;
+        // Pins: enemy sliders that would attack the king if exactly one of our pieces moved away
+        long queens = board.bitboard(them, Piece.QUEEN);
+        long enemyOcc = board.occupancy(them);
+        long snipers = (Attacks.rook(k, enemyOcc) & (board.bitboard(them, Piece.ROOK) | queens))
+                | (Attacks.bishop(k, enemyOcc) & (board.bitboard(them, Piece.BISHOP) | queens));
+        for (; snipers != 0; snipers &= snipers - 1) {
+            int s = Long.numberOfTrailingZeros(snipers);
+            long line = Attacks.between(k, s);
+            long blockers = line & occ;
+            if (Long.bitCount(blockers) == 1 && (blockers & board.occupancy(us)) != 0) {
+                pinned |= blockers;
+                pinLine[Long.numberOfTrailingZeros(blockers)] = line | (1L << s);
             }
         }
+    }
 
-        // 4) Deslizantes: torre/rainha (linhas/colunas)
-        int[][] ROOK_DIRS = {{-1,0},{1,0},{0,-1},{0,1}};
-        for (int[] d : ROOK_DIRS) {
-            int rr = r + d[0], cc = c + d[1];
-            while (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p != null) {
-                    if (p.isWhite() != sideToProtect && (p instanceof Rook || p instanceof Queen)) return true;
-                    break;
-                }
-                rr += d[0]; cc += d[1];
+    /** Bitboard of the legal destination squares of the piece on `from` (side to move). */
+    private long legalTargets(int from) {
+        computeMasks();
+        Piece p = board.get(from);
+        boolean us = whiteToMove;
+        long own = board.occupancy(us);
+        long occ = board.occupancy();
+        // >>> NUNCA permitir "capturar" Rei inimigo
+        long forbidden = own | board.bitboard(!us, Piece.KING);
+
+        if (p instanceof King) {
+            long targets = 0L;
+            long occNoKing = occ & ~(1L << from); // the king must not hide behind itself
+            for (long bb = Attacks.king(from) & ~forbidden; bb != 0; bb &= bb - 1) {
+                int to = Long.numberOfTrailingZeros(bb);
+                if (attackersTo(to, !us, occNoKing) == 0) targets |= 1L << to;
+            }
+            // Castling candidates (right still held, not in check, path empty, pass squares not attacked)
+            if (checkers == 0) {
+                int row = from >>> 3;
+                int kingside = us ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+                int queenside = us ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+                if ((castlingRights & kingside) != 0 && canCastle(row, 4, 7, 5, 6, us)) targets |= 1L << Board.square(row, 6);
+                if ((castlingRights & queenside) != 0 && canCastle(row, 4, 0, 3, 2, us)) targets |= 1L << Board.square(row, 2);
             }
+            return targets;
         }
 
-        // 5) Deslizantes: bispo/rainha (diagonais)
-        int[][] BISHOP_DIRS = {{-1,-1},{-1,1},{1,-1},{1,1}};
-        for (int[] d : BISHOP_DIRS) {
-            int rr = r + d[0], cc = c + d[1];
-            while (rr>=0 && rr<8 && cc>=0 && cc<8) {
-                Piece p = board.get(new Position(rr, cc));
-                if (p != null) {
-                    if (p.isWhite() != sideToProtect && (p instanceof Bishop || p instanceof Queen)) return true;
-                    break;
-                }
-                rr += d[0]; cc += d[1];
-            }
+        long targets = p.moveMask(board, from) & ~forbidden & checkMask;
+        if ((pinned & (1L << from)) != 0) targets &= pinLine[from];
+
+        // En passant: simulated on the occupancy (it removes two pieces from the same rank)
+        if (p instanceof Pawn && enPassantTarget != null) {
+            int ep = Board.square(enPassantTarget);
+            if ((Attacks.pawn(us, from) & (1L << ep)) != 0 && enPassantIsLegal(from, ep)) targets |= 1L << ep;
         }
+        return targets;
+    }
 
-        return false;
+    private boolean enPassantIsLegal(int from, int ep) {
+        boolean us = whiteToMove, them = !whiteToMove;
+        int victim = ep + (us ? 8 : -8);
+        Piece v = board.get(victim);
+        if (!(v instanceof Pawn) || v.isWhite() == us) return false;
+
+        int k = board.kingSquare(us);
+        if (k < 0) return true;
+        long occ = (board.occupancy() & ~(1L << from) & ~(1L << victim)) | (1L << ep);
+        long queens = board.bitboard(them, Piece.QUEEN);
+        long attackers = (Attacks.rook(k, occ) & (board.bitboard(them, Piece.ROOK) | queens))
+                | (Attacks.bishop(k, occ) & (board.bitboard(them, Piece.BISHOP) | queens))
+                | (Attacks.knight(k) & board.bitboard(them, Piece.KNIGHT))
+                | (Attacks.pawn(us, k) & board.bitboard(them, Piece.PAWN) & ~(1L << victim));
+        return attackers == 0;
     }
 
-    // Executes a move on this.board without doing legality checks or specials.
-    // Used only inside snapshots where the move was already validated.
-    private void forceMoveNoChecks(Position from, Position to) {
-        Piece p = board.get(from);
-        if (p == null) return;
+    private boolean canCastle(int row, int kingCol, int rookCol, int passCol1, int passCol2, boolean whiteSide) {
+        Piece rook = board.get(Board.square(row, rookCol));
+        if (!(rook instanceof Rook) || rook.isWhite() != whiteSide) return false;
 
-        int dCol = Math.abs(to.getColumn() - from.getColumn());
-        boolean isPawn = p instanceof Pawn;
-        boolean isKing = p instanceof King;
-
-        // Detect en passant: pawn moves diagonally onto empty square that equals enPassantTarget
-        boolean diagonal = from.getColumn() != to.getColumn();
-        boolean toIsEmpty = board.get(to) == null;
-        boolean ep = isPawn && diagonal && toIsEmpty && enPassantTarget != null && to.equals(enPassantTarget);
-
-        // Detect castling: king moves two columns
-        boolean castle = isKing && dCol == 2;
-
-        // Base move
-        board.set(to, p);
-        board.set(from, null);
-        p.setMoved(true);
-
-        // Apply en passant capture
-        if (ep) {
-            int dir = p.isWhite() ? 1 : -1; // victim behind target
-            Position victim = new Position(to.getRow() + dir, to.getColumn());
-            board.set(victim, null);
-        }
+        // Path between king and rook must be empty
+        if ((Attacks.between(Board.square(row, kingCol), Board.square(row, rookCol)) & board.occupancy()) != 0) return false;
 
-        // Apply rook move for castling
-        if (castle) {
-            int row = to.getRow();
-            if (to.getColumn() == 6) {
-                // O-O: rook h -> f
-                Piece rook = board.get(new Position(row, 7));
-                board.set(new Position(row, 5), rook);
-                board.set(new Position(row, 7), null);
-                if (rook != null) rook.setMoved(true);
-            } else if (to.getColumn() == 2) {
-                // O-O-O: rook a -> d
-                Piece rook = board.get(new Position(row, 0));
-                board.set(new Position(row, 3), rook);
-                board.set(new Position(row, 0), null);
-                if (rook != null) rook.setMoved(true);
-            }
-        }
+        // Squares king passes through (and destination) must not be attacked
+        long occ = board.occupancy();
+        return attackersTo(Board.square(row, passCol1), !whiteSide, occ) == 0
+                && attackersTo(Board.square(row, passCol2), !whiteSide, occ) == 0;
+    }
 
-        // For snapshot simulation we don't keep EP availability
-        enPassantTarget = null;
+    /**
+     * Bitboard of the pieces of color `byWhite` attacking square `sq`, given
+     * the occupancy `occ`. Uses the Attacks tables: one lookup + AND per piece type.
+     */
+    private long attackersTo(int sq, boolean byWhite, long occ) {
+        long queens = board.bitboard(byWhite, Piece.QUEEN);
+        // Peões: um peão da outra cor em sq atacaria exatamente as casas de onde os peões atacantes atacam sq
+        return (Attacks.pawn(!byWhite, sq) & board.bitboard(byWhite, Piece.PAWN))
+                | (Attacks.knight(sq) & board.bitboard(byWhite, Piece.KNIGHT))
+                | (Attacks.king(sq) & board.bitboard(byWhite, Piece.KING))
+                | (Attacks.rook(sq, occ) & (board.bitboard(byWhite, Piece.ROOK) | queens))
+                | (Attacks.bishop(sq, occ) & (board.bitboard(byWhite, Piece.BISHOP) | queens));
     }
 
-    // --------- King location ----------
-    private Position findKing(boolean whiteSide) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Position pos = new Position(row, col);
-                Piece piece = board.get(pos);
-                if (piece instanceof King && piece.isWhite() == whiteSide) {
-                    return pos;
-                }
-            }
-        }
-        return null;
-    }
-
-    // --------- Snapshot ----------
-    private Game snapshotShallow() {
-        Game g = new Game(true);
-        g.board = this.board.copy(); // IMPORTANT: Board.copy() must deep-copy pieces and fix their board refs.
-        g.whiteToMove = this.whiteToMove;
-        g.gameOver = this.gameOver;
-        g.enPassantTarget = (this.enPassantTarget == null)
-                ? null
-                : new Position(this.enPassantTarget.getRow(), this.enPassantTarget.getColumn());
-        g.history.addAll(this.history);
-        return g;
+    // --------- Zobrist state ----------
+
+    // Full recomputation, only used when a position is set up from scratch
+    private void resetStateKey() {
+        stateKey = Zobrist.castling(castlingRights);
+        stateKey ^= enPassantKey(whiteToMove);
+        if (!whiteToMove) stateKey ^= Zobrist.blackToMove();
+    }
+
+    // The en-passant file only enters the key when a pawn can actually capture,
+    // so transpositions that differ only by a useless double push hash equally.
+    private long enPassantKey(boolean capturerWhite) {
+        if (enPassantTarget == null) return 0L;
+        int sq = Board.square(enPassantTarget);
+        if ((Attacks.pawn(!capturerWhite, sq) & board.bitboard(capturerWhite, Piece.PAWN)) == 0) return 0L;
+        return Zobrist.enPassant(enPassantTarget.getColumn());
     }
 
     // --------- Notation helpers ----------
@@ -523,6 +696,11 @@ public class Game {
         history.add(moveStr);
     }
 
+    private static char promotionSymbol(Character promotion) {
+        char ch = (promotion == null) ? 'Q' : Character.toUpperCase(promotion);
+        return (ch == 'R' || ch == 'B' || ch == 'N') ? ch : 'Q';
+    }
+
     private String coord(Position p) {
         char file = (char) ('a' + p.getColumn());
         int rank = 8 - p.getRow();
@@ -532,31 +710,31 @@ public class Game {
     // --------- Initial setup ----------
     private void setupPieces() {
         // White back rank (row 7)
-        board.placePiece(new Rook(board, true), new Position(7, 0));
-        board.placePiece(new Knight(board, true), new Position(7, 1));
-        board.placePiece(new Bishop(board, true), new Position(7, 2));
-        board.placePiece(new Queen(board, true), new Position(7, 3));
-        board.placePiece(new King(board, true), new Position(7, 4));
-        board.placePiece(new Bishop(board, true), new Position(7, 5));
-        board.placePiece(new Knight(board, true), new Position(7, 6));
-        board.placePiece(new Rook(board, true), new Position(7, 7));
+        board.placePiece(Rook.WHITE, Position.of(7, 0));
+        board.placePiece(Knight.WHITE, Position.of(7, 1));
+        board.placePiece(Bishop.WHITE, Position.of(7, 2));
+        board.placePiece(Queen.WHITE, Position.of(7, 3));
+        board.placePiece(King.WHITE, Position.of(7, 4));
+        board.placePiece(Bishop.WHITE, Position.of(7, 5));
+        board.placePiece(Knight.WHITE, Position.of(7, 6));
+        board.placePiece(Rook.WHITE, Position.of(7, 7));
         // White pawns (row 6)
         for (int c = 0; c < 8; c++) {
-            board.placePiece(new Pawn(board, true), new Position(6, c));
+            board.placePiece(Pawn.WHITE, Position.of(6, c));
         }
 
         // Black back rank (row 0)
-        board.placePiece(new Rook(board, false), new Position(0, 0));
-        board.placePiece(new Knight(board, false), new Position(0, 1));
-        board.placePiece(new Bishop(board, false), new Position(0, 2));
-        board.placePiece(new Queen(board, false), new Position(0, 3));
-        board.placePiece(new King(board, false), new Position(0, 4));
-        board.placePiece(new Bishop(board, false), new Position(0, 5));
-        board.placePiece(new Knight(board, false), new Position(0, 6));
-        board.placePiece(new Rook(board, false), new Position(0, 7));
+        board.placePiece(Rook.BLACK, Position.of(0, 0));
+        board.placePiece(Knight.BLACK, Position.of(0, 1));
+        board.placePiece(Bishop.BLACK, Position.of(0, 2));
+        board.placePiece(Queen.BLACK, Position.of(0, 3));
+        board.placePiece(King.BLACK, Position.of(0, 4));
+        board.placePiece(Bishop.BLACK, Position.of(0, 5));
+        board.placePiece(Knight.BLACK, Position.of(0, 6));
+        board.placePiece(Rook.BLACK, Position.of(0, 7));
         // Black pawns (row 1)
         for (int c = 0; c < 8; c++) {
-            board.placePiece(new Pawn(board, false), new Position(1, c));
+            board.placePiece(Pawn.BLACK, Position.of(1, c));
         }
     }
 }
@@ -0,0 +1,12 @@
+package controller;
+
+/** Status of the side to move in the current position (see Game.status()). */
+public enum GameStatus {
+    ONGOING,
+    CHECK,
+    CHECKMATE,
+    STALEMATE;
+
+    public boolean isCheck() { return this == CHECK || this == CHECKMATE; }
+    public boolean isTerminal() { return this == CHECKMATE || this == STALEMATE; }
+}
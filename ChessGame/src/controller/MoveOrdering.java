@@ -0,0 +1,120 @@
+package controller;
+
+import java.util.Arrays;
+import model.board.Board;
+import model.board.Move;
+import model.board.MoveList;
+import model.board.PieceSquareTables;
+import model.pieces.Piece;
+
+/**
+ * Ordenação de lances da busca. Prioridades (score gravado na MoveList):
+ * <ol>
+ *   <li>lance da tabela de transposição / variante principal;</li>
+ *   <li>capturas por MVV-LVA (vítima mais valiosa, depois atacante mais barato; Piece.getValue);</li>
+ *   <li>promoções sem captura;</li>
+ *   <li>dois lances "killer" por ply (lances quietos que já causaram corte neste ply);</li>
+ *   <li>demais lances quietos pela tabela de histórico [cor][origem][destino].</li>
+ * </ol>
+ * Killers e histórico são estado de uma busca (não thread-safe); o histórico
+ * é reduzido à metade a cada nova busca, para continuar útil sem dominar.
+ */
+public final class MoveOrdering {
+
+    private static final int TT_MOVE = 1_000_000;
+    private static final int CAPTURE = 500_000;
+    private static final int PROMOTION = 400_000;
+    private static final int KILLER_1 = 300_000, KILLER_2 = 299_000;
+    private static final int HISTORY_MAX = 200_000; // histórico sempre abaixo dos killers
+
+    private final int[][] killers;
+    private final int[][][] history = new int[2][64][64];
+
+    public MoveOrdering(int maxPly) {
+        killers = new int[maxPly][2];
+    }
+
+    /** Início de uma busca: zera os killers e envelhece o histórico. */
+    public void newSearch() {
+        for (int[] k : killers) k[0] = k[1] = 0;
+        for (int[][] side : history)
+            for (int[] row : side)
+                for (int i = 0; i < row.length; i++) row[i] >>= 1;
+    }
+
+    /** Esvazia também o histórico (ex.: novo jogo). */
+    public void clear() {
+        newSearch();
+        for (int[][] side : history)
+            for (int[] row : side) Arrays.fill(row, 0);
+    }
+
+    /** Grava em `moves` o score de ordenação de cada lance. */
+    public void score(Board board, MoveList moves, int ttMove, int ply) {
+        int killer1 = killers[ply][0], killer2 = killers[ply][1];
+        for (int i = 0; i < moves.size(); i++) {
+            int m = moves.get(i);
+            int from = Move.fromSquare(m), to = Move.toSquare(m);
+            int promo = Move.promotionType(m);
+            int score;
+            if (m == ttMove) {
+                score = TT_MOVE;
+            } else if (Move.isCapture(m)) {
+                Piece attacker = board.get(from);
+                Piece victim = board.get(to);
+                int victimValue = victim != null ? victim.getValue() : PieceSquareTables.value(Piece.PAWN); // en passant
+                score = CAPTURE + victimValue * 100 - attacker.getValue();
+                if (promo != 0) score += PieceSquareTables.value(promo);
+            } else if (promo != 0) {
+                score = PROMOTION + PieceSquareTables.value(promo);
+            } else if (m == killer1) {
+                score = KILLER_1;
+            } else if (m == killer2) {
+                score = KILLER_2;
+            } else {
+                score = history[board.get(from).isWhite() ? 0 : 1][from][to];
+            }
+            moves.setScore(i, score);
+        }
+    }
+
+    /**
+     * Seleção incremental: traz para a posição `i` o lance de maior score entre
+     * i..size-1 e o devolve. Com cortes cedo, evita ordenar a lista inteira.
+     */
+    public static int pickNext(MoveList moves, int i) {
+        int best = i;
+        for (int j = i + 1; j < moves.size(); j++) {
+            if (moves.score(j) > moves.score(best)) best = j;
+        }
+        if (best != i) moves.swap(i, best);
+        return moves.get(i);
+    }
+
+    /** True se o lance não é captura nem promoção (candidato a killer/histórico). */
+    public static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && Move.promotionType(move) == 0;
+    }
+
+    /**
+     * Lance quieto causou corte beta: vira killer do ply e ganha depth² no
+     * histórico. `white` é a cor de quem jogou o lance.
+     */
+    public void onCutoff(int move, boolean white, int depth, int ply) {
+        if (!isQuiet(move)) return;
+        int[] k = killers[ply];
+        if (k[0] != move) {
+            k[1] = k[0];
+            k[0] = move;
+        }
+        int[] row = history[white ? 0 : 1][Move.fromSquare(move)];
+        int to = Move.toSquare(move);
+        row[to] += depth * depth;
+        if (row[to] > HISTORY_MAX) {
+            // Reescala tudo, preservando a ordem relativa
+            for (int[][] side : history)
+                for (int[] r : side)
+                    for (int j = 0; j < r.length; j++) r[j] >>= 1;
+        }
+    }
+}
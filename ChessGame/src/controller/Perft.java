@@ -0,0 +1,232 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import model.board.Move;
+import model.board.MoveList;
+
+/**
+ * Perft: counts the leaf nodes of the legal move tree to a fixed depth, to
+ * verify the move generator against known counts and to measure its speed.
+ *
+ * <pre>
+ * java -cp bin controller.Perft [options]
+ *   --fen "&lt;FEN&gt;"  position to search (default: start position)
+ *   --depth N       depth in plies (default 5)
+ *   --divide        print the node count below each root move
+ *   --threads N     split the root moves across N threads (default 1)
+ *   --no-bulk       make every last-ply move instead of counting the generated list
+ *   --verify        run the standard reference positions and compare the counts
+ *   --check-captures N  play N random games from the reference positions and check that
+ *                       generateLegalCaptures returns exactly the captures and promotions
+ *                       of generateLegalMoves at every ply
+ * </pre>
+ */
+public final class Perft {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Standard reference positions with their node counts for depth 1, 2, 3...
+    private static final String[][] REFERENCE = {
+        {START_FEN, "20 400 8902 197281 4865609"},
+        {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "48 2039 97862 4085603"},
+        {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "14 191 2812 43238 674624"},
+        {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", "6 264 9467 422333"},
+        {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", "44 1486 62379 2103487"},
+        {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", "46 2079 89890 3894594"},
+    };
+
+    private Perft() { /* entry point only */ }
+
+    /** Leaf count of `game` to `depth`; the game is restored on return. */
+    public static long perft(RulesEngine game, int depth, boolean bulk) {
+        return perft(game, depth, bulk, MoveList.stack(Math.max(depth, 1)), 0);
+    }
+
+    private static long perft(RulesEngine game, int depth, boolean bulk, MoveList[] lists, int ply) {
+        if (depth == 0) return 1;
+        MoveList moves = lists[ply];
+        moves.clear();
+        game.generateLegalMoves(moves);
+        if (bulk && depth == 1) return moves.size();
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1, bulk, lists, ply + 1);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Node counts below each root move (in generation order). With more than
+     * one thread every root move is searched on its own copy of the game.
+     */
+    public static long[] divide(Game game, int depth, boolean bulk, int threads, MoveList rootMoves) {
+        rootMoves.clear();
+        game.generateLegalMoves(rootMoves);
+        long[] counts = new long[rootMoves.size()];
+        if (depth <= 0) return counts;
+
+        if (threads <= 1) {
+            MoveList[] lists = MoveList.stack(depth);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                game.makeMove(rootMoves.get(i));
+                counts[i] = perft(game, depth - 1, bulk, lists, 0);
+                game.unmakeMove();
+            }
+            return counts;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>(rootMoves.size());
+            for (int i = 0; i < rootMoves.size(); i++) {
+                Game sub = game.copy();
+                sub.makeMove(rootMoves.get(i));
+                results.add(pool.submit(() -> perft(sub, depth - 1, bulk)));
+            }
+            for (int i = 0; i < counts.length; i++) counts[i] = results.get(i).get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Perft worker failed", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return counts;
+    }
+
+    public static void main(String[] args) {
+        String fen = START_FEN;
+        int depth = 5, threads = 1;
+        boolean divide = false, bulk = true, verify = false;
+        boolean depthGiven = false;
+        int captureGames = 0;
+        Game game;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--fen" -> fen = args[++i];
+                    case "--depth" -> { depth = Integer.parseInt(args[++i]); depthGiven = true; }
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--divide" -> divide = true;
+                    case "--no-bulk" -> bulk = false;
+                    case "--verify" -> verify = true;
+                    case "--check-captures" -> captureGames = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            game = Game.fromFen(fen); // a malformed FEN goes through the usage message too
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage() == null ? e.toString() : e.getMessage());
+            System.err.println("Usage: controller.Perft [--fen \"<FEN>\"] [--depth N] [--divide] [--threads N] [--no-bulk] [--verify] [--check-captures N]");
+            System.exit(2);
+            return;
+        }
+
+        if (captureGames > 0) {
+            System.exit(checkCaptures(captureGames, 1) ? 0 : 1);
+        }
+
+        if (verify) {
+            boolean ok = verify(depthGiven ? depth : Integer.MAX_VALUE, bulk, threads);
+            System.exit(ok ? 0 : 1);
+        }
+
+        run(game, fen, depth, bulk, threads, divide);
+    }
+
+    private static void run(Game game, String fen, int depth, boolean bulk, int threads, boolean divide) {
+        System.out.println("Position: " + fen);
+        MoveList root = new MoveList();
+        long t0 = System.nanoTime();
+        long[] counts = divide(game, depth, bulk, threads, root);
+        long nodes = depth == 0 ? 1 : 0;
+        for (long c : counts) nodes += c;
+        long elapsed = System.nanoTime() - t0;
+
+        if (divide) {
+            for (int i = 0; i < root.size(); i++) {
+                System.out.println(Move.toString(root.get(i)) + ": " + counts[i]);
+            }
+            System.out.println("Moves: " + root.size());
+        }
+        System.out.printf("Depth %d: %d nodes in %.3f s (%.0f nps, %d thread%s, bulk %s)%n",
+                depth, nodes, elapsed / 1e9, nodes / Math.max(elapsed / 1e9, 1e-9),
+                threads, threads == 1 ? "" : "s", bulk ? "on" : "off");
+    }
+
+    // Runs every reference position up to maxDepth; true if all counts match
+    private static boolean verify(int maxDepth, boolean bulk, int threads) {
+        boolean allOk = true;
+        long totalNodes = 0, t0 = System.nanoTime();
+        for (String[] ref : REFERENCE) {
+            String[] expected = ref[1].split(" ");
+            System.out.println("Position: " + ref[0]);
+            for (int d = 1; d <= Math.min(expected.length, maxDepth); d++) {
+                long nodes = 0;
+                for (long c : divide(Game.fromFen(ref[0]), d, bulk, threads, new MoveList())) nodes += c;
+                long want = Long.parseLong(expected[d - 1]);
+                boolean ok = nodes == want;
+                allOk &= ok;
+                totalNodes += nodes;
+                System.out.printf("  depth %d: %d %s%n", d, nodes, ok ? "ok" : "FAILED (expected " + want + ")");
+            }
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%s: %d nodes in %.3f s (%.0f nps)%n",
+                allOk ? "All reference counts match" : "MISMATCH", totalNodes, secs, totalNodes / Math.max(secs, 1e-9));
+        return allOk;
+    }
+
+    /**
+     * Plays `games` random games (up to 120 plies each) from the reference
+     * positions and compares, at every ply, generateLegalCaptures with the
+     * captures and promotions filtered out of generateLegalMoves.
+     */
+    public static boolean checkCaptures(int games, long seed) {
+        Random random = new Random(seed);
+        MoveList all = new MoveList(), captures = new MoveList(), expected = new MoveList();
+        long positions = 0;
+        for (int n = 0; n < games; n++) {
+            Game game = Game.fromFen(REFERENCE[n % REFERENCE.length][0]);
+            for (int ply = 0; ply < 120; ply++) {
+                all.clear();
+                captures.clear();
+                expected.clear();
+                game.generateLegalMoves(all);
+                game.generateLegalCaptures(captures);
+                for (int i = 0; i < all.size(); i++) {
+                    int m = all.get(i);
+                    if (Move.isCapture(m) || Move.promotionType(m) != 0) expected.add(m);
+                }
+                if (!sameMoves(expected, captures)) {
+                    System.out.println("MISMATCH in game " + n + " at ply " + ply + ": expected " + expected.size()
+                            + " captures/promotions, generated " + captures.size());
+                    return false;
+                }
+                positions++;
+                if (all.isEmpty()) break;
+                game.makeMove(all.get(random.nextInt(all.size())));
+            }
+        }
+        System.out.println("Captures match in " + positions + " positions (" + games + " games)");
+        return true;
+    }
+
+    // Same moves, in any order (the lists hold no duplicates)
+    private static boolean sameMoves(MoveList a, MoveList b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            boolean found = false;
+            for (int j = 0; j < b.size() && !found; j++) found = a.get(i) == b.get(j);
+            if (!found) return false;
+        }
+        return true;
+    }
+}
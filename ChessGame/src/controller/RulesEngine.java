@@ -0,0 +1,69 @@
+package controller;
+
+import java.util.List;
+import model.board.Board;
+import model.board.MoveList;
+import model.board.Position;
+
+/**
+ * The single chess rules core shared by the GUI and the AI.
+ *
+ * UI code works with {@link Position}s through {@link #legalMovesFrom} and
+ * {@link #move}; the search works with int-encoded moves (see Move.encode)
+ * through {@link #generateLegalMoves}, {@link #makeMove(int)} and
+ * {@link #unmakeMove()}, which never copy the position.
+ */
+public interface RulesEngine {
+
+    // --------- Position state ----------
+    Board board();
+    boolean whiteToMove();
+    boolean isGameOver();
+    List<String> history();
+
+    /** 64-bit Zobrist key of the current position. */
+    long positionKey();
+
+    /** Remaining castling rights as a 4-bit mask (see Game.WHITE_KINGSIDE etc.). */
+    int castlingRights();
+
+    void newGame();
+
+    /** Independent copy of the current position (empty undo stack), e.g. for a background search. */
+    RulesEngine copy();
+
+    // --------- UI moves ----------
+    List<Position> legalMovesFrom(Position from);
+    boolean isPromotion(Position from, Position to);
+
+    /** Plays a move if it is legal, recording history and detecting the end of the game. */
+    void move(Position from, Position to, Character promotion);
+
+    // --------- Search moves ----------
+    /** Appends every legal move of the side to move to `out`. */
+    void generateLegalMoves(MoveList out);
+
+    /** Appends only the legal captures and promotions of the side to move to `out`. */
+    void generateLegalCaptures(MoveList out);
+
+    /** Applies an int-encoded move in place; revert it with {@link #unmakeMove()}. */
+    void makeMove(int move);
+
+    void unmakeMove();
+
+    /** Passes the turn (null move, for search pruning; not when in check). */
+    void makeNullMove();
+
+    void unmakeNullMove();
+
+    // --------- Status ----------
+    boolean inCheck(boolean whiteSide);
+    /** Checkmate of `whiteSide`; always false when it is not the side to move. */
+    boolean isCheckmate(boolean whiteSide);
+
+    /** Status of the side to move, cached per position. */
+    GameStatus status();
+
+    /** Legal moves of the side to move, cached per position (read-only). */
+    MoveList allLegalMoves();
+}
@@ -0,0 +1,71 @@
+package controller;
+
+import model.board.PieceSquareTables;
+
+/**
+ * Parâmetros ajustáveis da busca do {@link ChessAI}. Os valores padrão são
+ * os usados pelo jogo; campos públicos para facilitar experimentos
+ * (ex.: desligar uma poda e comparar SearchStats / benchmarks).
+ * Alterar durante uma busca não é suportado.
+ */
+public final class SearchParams {
+
+    // --------- Poda por lance nulo ----------
+    /** Passa a vez e busca com profundidade reduzida; se ainda assim falhar alto, corta. */
+    public boolean nullMove = true;
+    /** Profundidade mínima restante para tentar o lance nulo. */
+    public int nullMoveMinDepth = 3;
+    /** Redução R do lance nulo (a busca nula usa depth - 1 - R). */
+    public int nullMoveReduction = 2;
+    /** A partir desta profundidade, R aumenta em 1. */
+    public int nullMoveDeepDepth = 7;
+
+    // --------- Late move reductions ----------
+    /** Lances quietos tardios são buscados com profundidade reduzida (e de novo se superarem alpha). */
+    public boolean lateMoveReductions = true;
+    /** Profundidade mínima restante para reduzir. */
+    public int lmrMinDepth = 3;
+    /** Quantos lances (na ordem de busca) são sempre buscados a profundidade cheia. */
+    public int lmrFullDepthMoves = 3;
+    /** Redução = 1 + ln(depth) * ln(índice do lance) / lmrDivisor. */
+    public double lmrDivisor = 2.5;
+
+    // --------- Poda na fronteira ----------
+    // Margens na escala da avaliação (material + tabelas peça-casa): cada lance quieto
+    // de uma profundidade restante pode mudar a avaliação em até MAX_QUIET_GAIN.
+    private static final int QUIET = PieceSquareTables.MAX_QUIET_GAIN;
+
+    /** Futilidade: perto das folhas, lances quietos não buscados se avaliação + margem não alcança alpha. */
+    public boolean futilityPruning = true;
+    /** Margem por profundidade restante (índice = depth; o tamanho define a profundidade máxima). */
+    public int[] futilityMargins = {0, QUIET, 2 * QUIET};
+
+    /** Futilidade reversa (lance nulo estático): avaliação - margem * depth ainda >= beta corta o nó. */
+    public boolean reverseFutility = true;
+    public int reverseFutilityMargin = QUIET;
+    public int reverseFutilityMaxDepth = 3;
+
+    /** Razoring: avaliação + margem abaixo de alpha vai direto para a quiescência. */
+    public boolean razoring = true;
+    public int[] razorMargins = {0, QUIET, 2 * QUIET};
+
+    public SearchParams copy() {
+        SearchParams p = new SearchParams();
+        p.nullMove = nullMove;
+        p.nullMoveMinDepth = nullMoveMinDepth;
+        p.nullMoveReduction = nullMoveReduction;
+        p.nullMoveDeepDepth = nullMoveDeepDepth;
+        p.lateMoveReductions = lateMoveReductions;
+        p.lmrMinDepth = lmrMinDepth;
+        p.lmrFullDepthMoves = lmrFullDepthMoves;
+        p.lmrDivisor = lmrDivisor;
+        p.futilityPruning = futilityPruning;
+        p.futilityMargins = futilityMargins.clone();
+        p.reverseFutility = reverseFutility;
+        p.reverseFutilityMargin = reverseFutilityMargin;
+        p.reverseFutilityMaxDepth = reverseFutilityMaxDepth;
+        p.razoring = razoring;
+        p.razorMargins = razorMargins.clone();
+        return p;
+    }
+}
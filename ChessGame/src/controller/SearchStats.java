@@ -0,0 +1,51 @@
+package controller;
+
+/** Contadores de uma busca do {@link ChessAI} (zerados no início de cada busca, por thread). */
+public final class SearchStats {
+
+    public long nodes;               // todos os nós, quiescência incluída
+    public long qnodes;              // nós da quiescência
+    public long deltaPruned;         // capturas descartadas pela poda delta
+    public long ttHits, ttCutoffs;   // entradas encontradas / cortes só pela tabela
+    public long pvsResearches;       // lances não-PV buscados de novo com a janela inteira
+    public long aspirationResearches;
+    public long nullMoveTries, nullMoveCutoffs;
+    public long lmrReductions, lmrResearches;
+    public long futilityPruned;          // lances quietos pulados pela futilidade
+    public long reverseFutilityCutoffs;  // nós cortados pela futilidade reversa
+    public long razorCutoffs;            // nós resolvidos pela quiescência (razoring)
+
+    public void clear() {
+        nodes = qnodes = deltaPruned = ttHits = ttCutoffs = 0;
+        pvsResearches = aspirationResearches = 0;
+        nullMoveTries = nullMoveCutoffs = lmrReductions = lmrResearches = 0;
+        futilityPruned = reverseFutilityCutoffs = razorCutoffs = 0;
+    }
+
+    /** Soma os contadores de outra busca (ex.: das threads auxiliares). */
+    public void add(SearchStats o) {
+        nodes += o.nodes;
+        qnodes += o.qnodes;
+        deltaPruned += o.deltaPruned;
+        ttHits += o.ttHits;
+        ttCutoffs += o.ttCutoffs;
+        pvsResearches += o.pvsResearches;
+        aspirationResearches += o.aspirationResearches;
+        nullMoveTries += o.nullMoveTries;
+        nullMoveCutoffs += o.nullMoveCutoffs;
+        lmrReductions += o.lmrReductions;
+        lmrResearches += o.lmrResearches;
+        futilityPruned += o.futilityPruned;
+        reverseFutilityCutoffs += o.reverseFutilityCutoffs;
+        razorCutoffs += o.razorCutoffs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nós %d (quiesc. %d, delta %d) | TT %d/%d | PVS %d, aspiração %d"
+                + " | nulo %d/%d | LMR %d (rebuscas %d) | futilidade %d, reversa %d, razoring %d",
+                nodes, qnodes, deltaPruned, ttCutoffs, ttHits, pvsResearches, aspirationResearches,
+                nullMoveCutoffs, nullMoveTries, lmrReductions, lmrResearches,
+                futilityPruned, reverseFutilityCutoffs, razorCutoffs);
+    }
+}
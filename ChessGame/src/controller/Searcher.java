@@ -0,0 +1,446 @@
+package controller;
+
+import static controller.ChessAI.INFINITY;
+import static controller.ChessAI.MATE;
+import static controller.ChessAI.MAX_PLY;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import model.board.Board;
+import model.board.Move;
+import model.board.MoveList;
+import model.board.PieceSquareTables;
+import model.pieces.Piece;
+
+/**
+ * Uma thread de busca do {@link ChessAI}: Negamax com aprofundamento
+ * iterativo, PVS, quiescência e podas, sobre o seu próprio jogo.
+ *
+ * Listas de lances, killers/histórico e contadores são desta instância; a
+ * tabela de transposição, os parâmetros, a flag de parada da busca e a
+ * contagem global de nós são compartilhados com as demais threads (Lazy SMP).
+ */
+final class Searcher {
+
+    // Janela de aspiração (meia largura inicial, a partir de qual profundidade, largura máxima)
+    private static final int ASPIRATION_WINDOW = 15, ASPIRATION_MIN_DEPTH = 4, ASPIRATION_MAX = 400;
+    // Folga da poda delta na quiescência (2 peões)
+    private static final int DELTA_MARGIN = 20;
+    // Maior ganho de avaliação de uma captura: dama capturada com promoção a dama,
+    // com folga para as tabelas peça-casa e a troca de tabelas do rei ao entrar no final
+    private static final int MAX_GAIN = 2 * PieceSquareTables.value(Piece.QUEEN);
+
+    // Compartilhados entre as threads
+    private final TranspositionTable tt;
+    private final SearchParams params;
+    private final AtomicLong sharedNodes; // nós de todas as threads, publicados a cada 1024
+
+    // Estado desta thread
+    private final MoveList[] plyMoves = MoveList.stack(MAX_PLY);
+    private final MoveOrdering ordering = new MoveOrdering(MAX_PLY);
+    private final int[][] lmrTable = new int[MAX_PLY][MoveList.CAPACITY]; // redução por [depth][índice do lance]
+    final SearchStats stats = new SearchStats();
+    private long deadline;   // System.nanoTime() limite (Long.MAX_VALUE = sem prazo)
+    private long nodeLimit;
+    private int rootBest;    // melhor lance da última chamada de searchRoot
+    private AtomicBoolean stop; // flag de parada da busca atual (compartilhada, lida a cada nó)
+
+    // Resultado da última chamada de iterate
+    int completedDepth;
+    int lastScore;
+    boolean interrupted;     // parou antes de completar maxDepth
+
+    Searcher(TranspositionTable tt, SearchParams params, AtomicLong sharedNodes) {
+        this.tt = tt;
+        this.params = params;
+        this.sharedNodes = sharedNodes;
+    }
+
+    /** Esvazia killers e histórico (ex.: novo jogo). */
+    void clearHistory() {
+        ordering.clear();
+    }
+
+    // Conta um nó; a cada 1024 publica a contagem e confere prazo e orçamento
+    // (a parada vale para todas as threads). True se a busca deve parar.
+    private boolean countNode() {
+        if ((++stats.nodes & 1023) == 0
+                && (sharedNodes.addAndGet(1024) >= nodeLimit || System.nanoTime() > deadline)) {
+            stop.set(true);
+        }
+        return stop.get();
+    }
+
+    /**
+     * Aprofundamento iterativo de startDepth até maxDepth. Cada iteração busca
+     * a variante principal (PVS) dentro de uma janela de aspiração em torno do
+     * score anterior, alargada se o score cair fora dela.
+     *
+     * Quando `stop` é sinalizada (prazo, orçamento de nós, fim da busca
+     * principal ou cancelamento externo) a iteração em andamento é abandonada e o lance da última
+     * iteração completa é devolvido; sem nenhuma, o primeiro lance ordenado.
+     * O jogo é restaurado à posição original no retorno.
+     */
+    int iterate(RulesEngine g, int startDepth, int maxDepth, long deadline, long nodeLimit, AtomicBoolean stop) {
+        this.stop = stop;
+        this.deadline = deadline;
+        this.nodeLimit = nodeLimit;
+        stats.clear();
+        initReductions();
+        ordering.newSearch();
+        completedDepth = 0;
+        lastScore = 0;
+        interrupted = false;
+
+        MoveList root = plyMoves[0];
+        root.clear();
+        g.generateLegalMoves(root);
+        if (root.isEmpty()) return 0;
+        // Ordem inicial da raiz: lance da tabela, capturas MVV-LVA, promoções, histórico
+        long rootEntry = tt.probe(g.positionKey());
+        ordering.score(g.board(), root, rootEntry != 0 ? TranspositionTable.move(rootEntry) : 0, 0);
+        for (int i = 0; i < root.size(); i++) MoveOrdering.pickNext(root, i);
+
+        int bestMove = root.get(0);
+        for (int depth = startDepth; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            // Janela de aspiração em torno do score da iteração anterior; alarga ao falhar
+            int delta = ASPIRATION_WINDOW;
+            int alpha = -INFINITY, beta = INFINITY;
+            if (depth >= ASPIRATION_MIN_DEPTH && Math.abs(lastScore) < MATE - MAX_PLY) {
+                alpha = lastScore - delta;
+                beta = lastScore + delta;
+            }
+            int score;
+            while (true) {
+                score = searchRoot(g, root, depth, alpha, beta);
+                if (stop.get()) break;
+                if (score <= alpha) {
+                    alpha = Math.max(alpha - delta, -INFINITY);
+                } else if (score >= beta) {
+                    beta = Math.min(beta + delta, INFINITY);
+                    moveToFront(root, rootBest); // o lance que falhou alto abre a nova busca
+                } else {
+                    break;
+                }
+                stats.aspirationResearches++;
+                delta *= 2;
+                if (delta > ASPIRATION_MAX) { // janela já larga demais: busca completa
+                    alpha = -INFINITY;
+                    beta = INFINITY;
+                }
+            }
+            if (stop.get()) { // iteração incompleta: fica o lance da anterior
+                interrupted = true;
+                break;
+            }
+
+            bestMove = rootBest;
+            lastScore = score;
+            completedDepth = depth;
+            tt.store(g.positionKey(), bestMove, toTT(score, 0), depth, TranspositionTable.EXACT);
+            // A próxima iteração começa pelo melhor lance desta
+            moveToFront(root, bestMove);
+            if (Math.abs(score) >= MATE - MAX_PLY) break; // mate encontrado: mais profundidade não muda o lance
+        }
+        return bestMove;
+    }
+
+    // Leva `move` para o início da lista, mantendo a ordem relativa dos demais
+    private static void moveToFront(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) != move) continue;
+            for (int j = i; j > 0; j--) moves.swap(j, j - 1);
+            return;
+        }
+    }
+
+    /**
+     * Uma iteração na raiz com janela (alpha, beta): o primeiro lance com a
+     * janela inteira, os demais com janela nula (PVS). Guarda em rootBest o
+     * lance que subiu alpha (0 se todos falharam baixo).
+     */
+    private int searchRoot(RulesEngine g, MoveList root, int depth, int alpha, int beta) {
+        int best = -INFINITY;
+        rootBest = 0;
+        for (int i = 0; i < root.size(); i++) {
+            int m = root.get(i);
+            g.makeMove(m);
+            int score = pvs(g, i == 0, depth - 1, 0, alpha, beta, 1);
+            g.unmakeMove();
+            if (stop.get()) return 0;
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    rootBest = m;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Score (lado que acabou de jogar) do lance já feito em `g`, pela busca de
+     * variante principal: o primeiro lance usa a janela inteira; os outros só
+     * precisam provar que não são melhores que alpha (janela nula) e, se
+     * surpreenderem, são buscados de novo com a janela inteira.
+     * Com `reduction` > 0 (LMR) a janela nula é tentada antes com profundidade
+     * reduzida e repetida a profundidade cheia se o lance superar alpha.
+     */
+    private int pvs(RulesEngine g, boolean first, int depth, int reduction, int alpha, int beta, int ply) {
+        if (first) return -negamax(g, depth, -beta, -alpha, ply, true);
+        int score = -negamax(g, depth - reduction, -alpha - 1, -alpha, ply, true);
+        if (reduction > 0 && score > alpha && !stop.get()) {
+            stats.lmrResearches++;
+            score = -negamax(g, depth, -alpha - 1, -alpha, ply, true);
+        }
+        if (score > alpha && score < beta && !stop.get()) {
+            stats.pvsResearches++;
+            score = -negamax(g, depth, -beta, -alpha, ply, true);
+        }
+        return score;
+    }
+
+    // Tabela de reduções do LMR a partir dos parâmetros atuais
+    private void initReductions() {
+        for (int d = 1; d < MAX_PLY; d++) {
+            for (int i = 1; i < MoveList.CAPACITY; i++) {
+                lmrTable[d][i] = (int) (1 + Math.log(d) * Math.log(i) / params.lmrDivisor);
+            }
+        }
+    }
+
+    // Só rei e peões: o lance nulo erra em zugzwang, comum nesses finais
+    private static boolean hasNonPawnMaterial(Board board, boolean white) {
+        return (board.bitboard(white, Piece.KNIGHT) | board.bitboard(white, Piece.BISHOP)
+                | board.bitboard(white, Piece.ROOK) | board.bitboard(white, Piece.QUEEN)) != 0;
+    }
+
+    // Negamax com poda Alpha-Beta (make/unmake no mesmo jogo, sem clonar);
+    // o score é sempre do ponto de vista do lado que joga.
+    // allowNull = false logo após um lance nulo (dois seguidos não provam nada)
+    private int negamax(RulesEngine g, int depth, int alpha, int beta, int ply, boolean allowNull) {
+        // Nas folhas, só as capturas continuam (quiescência)
+        if (depth <= 0) return quiesce(g, alpha, beta, ply);
+
+        if (countNode()) return 0;
+
+        if (ply >= MAX_PLY - 1) return evaluate(g);
+
+        // Tabela de transposição: corta se a entrada é profunda o bastante e o limite permite
+        long key = g.positionKey();
+        long entry = tt.probe(key);
+        int ttMove = 0;
+        if (entry != 0) {
+            stats.ttHits++;
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int ttScore = fromTT(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.UPPER && ttScore <= alpha)) {
+                    stats.ttCutoffs++;
+                    return ttScore;
+                }
+            }
+        }
+
+        boolean inCheck = g.inCheck(g.whiteToMove());
+        boolean pvNode = beta - alpha > 1;
+        // Podas baseadas na avaliação estática: fora de xeque, de nós PV e de janelas de mate
+        boolean canPrune = !inCheck && !pvNode && Math.abs(alpha) < MATE - MAX_PLY && Math.abs(beta) < MATE - MAX_PLY;
+        int staticEval = canPrune ? evaluate(g) : 0;
+
+        // Futilidade reversa: mesmo cedendo a margem, a posição já passa de beta
+        if (canPrune && params.reverseFutility && depth <= params.reverseFutilityMaxDepth
+                && staticEval - params.reverseFutilityMargin * depth >= beta) {
+            stats.reverseFutilityCutoffs++;
+            return staticEval - params.reverseFutilityMargin * depth;
+        }
+
+        // Razoring: tão abaixo de alpha que só uma captura salvaria; a quiescência decide
+        if (canPrune && params.razoring && depth < params.razorMargins.length
+                && staticEval + params.razorMargins[depth] < alpha) {
+            int score = quiesce(g, alpha, alpha + 1, ply);
+            if (stop.get()) return 0;
+            if (score <= alpha) {
+                stats.razorCutoffs++;
+                return score;
+            }
+        }
+
+        // Poda por lance nulo: se mesmo passando a vez a busca reduzida falha alto,
+        // um lance de verdade também falharia. Fora de xeque, de nós PV e de finais só com peões
+        if (params.nullMove && allowNull && canPrune && depth >= params.nullMoveMinDepth
+                && hasNonPawnMaterial(g.board(), g.whiteToMove()) && staticEval >= beta) {
+            int r = params.nullMoveReduction + (depth >= params.nullMoveDeepDepth ? 1 : 0);
+            stats.nullMoveTries++;
+            g.makeNullMove();
+            int score = -negamax(g, depth - 1 - r, -beta, -beta + 1, ply + 1, false);
+            g.unmakeNullMove();
+            if (stop.get()) return 0;
+            if (score >= beta) {
+                stats.nullMoveCutoffs++;
+                return beta; // não devolve mates "provados" por um lance nulo
+            }
+        }
+
+        MoveList moves = plyMoves[ply];
+        moves.clear();
+        g.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            // Sem lances: mate (preferindo o mais rápido) ou afogamento
+            return inCheck ? -(MATE - ply) : 0;
+        }
+
+        // Ordenação: lance da tabela, capturas MVV-LVA, promoções, killers, histórico
+        ordering.score(g.board(), moves, ttMove, ply);
+
+        // Futilidade: perto das folhas, se nem avaliação + margem alcança alpha,
+        // lances quietos não mudam o resultado
+        boolean futile = canPrune && params.futilityPruning && depth < params.futilityMargins.length
+                && staticEval + params.futilityMargins[depth] <= alpha;
+
+        int alphaOrig = alpha;
+        int best = -INFINITY, bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int m = MoveOrdering.pickNext(moves, i);
+            g.makeMove(m);
+            boolean quiet = MoveOrdering.isQuiet(m) && !g.inCheck(g.whiteToMove()); // nem captura, nem promoção, nem xeque
+            if (futile && i > 0 && quiet) {
+                g.unmakeMove();
+                stats.futilityPruned++;
+                continue;
+            }
+            // LMR: lances quietos tardios (sem xeque de nenhum lado) vão com profundidade reduzida
+            int reduction = 0;
+            if (params.lateMoveReductions && i >= params.lmrFullDepthMoves && depth >= params.lmrMinDepth
+                    && !inCheck && quiet) {
+                reduction = Math.min(lmrTable[depth][i], depth - 2);
+                if (reduction > 0) stats.lmrReductions++;
+            }
+            int score = pvs(g, i == 0, depth - 1, reduction, alpha, beta, ply + 1);
+            g.unmakeMove();
+            if (stop.get()) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = m;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) { // Poda
+                    ordering.onCutoff(m, g.whiteToMove(), depth, ply);
+                    break;
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > alphaOrig ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        // Em fail-low não há lance melhor confiável: 0 preserva o lance já guardado
+        tt.store(key, bound == TranspositionTable.UPPER ? 0 : bestMove, toTT(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Busca de quiescência: a partir das folhas segue só capturas e promoções,
+     * para não avaliar uma posição no meio de uma troca (efeito horizonte).
+     * Em xeque, todas as evasões são buscadas (não há stand-pat).
+     */
+    private int quiesce(RulesEngine g, int alpha, int beta, int ply) {
+        if (countNode()) return 0;
+        stats.qnodes++;
+
+        if (ply >= MAX_PLY - 1) return evaluate(g);
+
+        MoveList moves = plyMoves[ply];
+        moves.clear();
+        boolean inCheck = g.inCheck(g.whiteToMove());
+        int standPat = -INFINITY;
+        if (inCheck) {
+            g.generateLegalMoves(moves);
+            if (moves.isEmpty()) return -(MATE - ply);
+        } else {
+            // Stand-pat: o lado que joga pode recusar as capturas e ficar com a avaliação estática
+            standPat = evaluate(g);
+            if (standPat >= beta) return standPat;
+            // Poda delta grossa: nem o maior ganho possível leva o score até alpha
+            if (standPat + MAX_GAIN + DELTA_MARGIN < alpha) return standPat;
+            if (standPat > alpha) alpha = standPat;
+            g.generateLegalCaptures(moves);
+        }
+
+        ordering.score(g.board(), moves, 0, ply);
+        int best = standPat;
+        for (int i = 0; i < moves.size(); i++) {
+            int m = MoveOrdering.pickNext(moves, i);
+            // Poda delta: o ganho de avaliação, com folga, não alcança alpha, não vale buscar
+            if (!inCheck && standPat + evalGain(g.board(), m) + DELTA_MARGIN <= alpha) {
+                stats.deltaPruned++;
+                continue;
+            }
+            g.makeMove(m);
+            int score = -quiesce(g, -beta, -alpha, ply + 1);
+            g.unmakeMove();
+            if (stop.get()) return 0;
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) break;
+            }
+        }
+        return best;
+    }
+
+    // Ganho de avaliação (material + tabelas peça-casa) de uma captura/promoção
+    // para quem a joga, sem considerar a recaptura. Se o lance muda a fase
+    // (meio-jogo/final), as tabelas do rei mudam e o ganho é tratado como ilimitado.
+    private static int evalGain(Board board, int move) {
+        int from = Move.fromSquare(move), to = Move.toSquare(move);
+        Piece mover = board.get(from);
+        boolean white = mover.isWhite();
+        int type = mover.getType(), promo = Move.promotionType(move);
+        int material = board.material();
+        boolean endgame = material < PieceSquareTables.ENDGAME_MATERIAL;
+
+        int gain = pieceValue(endgame, white, promo != 0 ? promo : type, to) - pieceValue(endgame, white, type, from);
+        if (promo != 0) material += PieceSquareTables.value(promo) - PieceSquareTables.value(Piece.PAWN);
+        if (Move.isCapture(move)) {
+            Piece victim = board.get(to);
+            int victimType = victim != null ? victim.getType() : Piece.PAWN;
+            int victimSq = victim != null ? to : (white ? to + 8 : to - 8); // en passant: peão atrás do destino
+            gain += pieceValue(endgame, !white, victimType, victimSq);
+            material -= PieceSquareTables.value(victimType);
+        }
+        if ((material < PieceSquareTables.ENDGAME_MATERIAL) != endgame) return INFINITY;
+        return gain;
+    }
+
+    // Material + PST da peça na casa, do ponto de vista da sua cor
+    private static int pieceValue(boolean endgame, boolean white, int type, int sq) {
+        int v = endgame ? PieceSquareTables.eg(white, type, sq) : PieceSquareTables.mg(white, type, sq);
+        return white ? v : -v;
+    }
+
+    // Scores de mate são guardados relativos ao nó (distância até o mate a partir dele)
+    private static int toTT(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -(MATE - MAX_PLY)) return score - ply;
+        return score;
+    }
+
+    private static int fromTT(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -(MATE - MAX_PLY)) return score + ply;
+        return score;
+    }
+
+    // Avaliação do ponto de vista do lado que joga
+    private static int evaluate(RulesEngine g) {
+        int score = ChessAI.evaluateBoard(g.board());
+        return g.whiteToMove() ? score : -score;
+    }
+}
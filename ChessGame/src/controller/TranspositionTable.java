@@ -0,0 +1,148 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Transposition table of the search: fixed size, indexed by the Zobrist key
+ * of the position, stored as packed longs in a single long[].
+ *
+ * Each entry takes two longs: {@code key ^ data} and {@code data}. A probe
+ * only accepts an entry when {@code slot[0] ^ slot[1] == key}, so an entry
+ * half-written by another thread (or a different position sharing the
+ * bucket) is rejected instead of returning a wrong score. No locks are
+ * taken; several searches may share one table.
+ *
+ * Buckets hold two entries. A store replaces the entry of the same position,
+ * otherwise the one with the lowest {@code depth - 2 * age difference}, so
+ * entries left over from earlier searches (see {@link #newSearch()}) go first.
+ *
+ * Packed data (bit ranges):
+ * <pre>
+ *   0-17  best move (Move.encode, 0 = none)
+ *  18-37  score + 2^19 (20 bits)
+ *  38-45  depth (0-255)
+ *  46-47  bound (UPPER, LOWER, EXACT; never 0, so data == 0 means empty)
+ *  48-55  age (search counter when stored)
+ * </pre>
+ */
+public final class TranspositionTable {
+
+    public static final int UPPER = 1; // score <= value (fail low)
+    public static final int LOWER = 2; // score >= value (fail high)
+    public static final int EXACT = 3;
+
+    public static final int DEFAULT_MB = 16;
+
+    private static final int SCORE_SHIFT = 18, DEPTH_SHIFT = 38, BOUND_SHIFT = 46, AGE_SHIFT = 48;
+    private static final int SCORE_OFFSET = 1 << 19;
+    private static final int ENTRY_LONGS = 2, BUCKET_LONGS = 4;
+
+    private long[] table;
+    private int bucketMask;
+    private volatile int age;
+
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    /** Reallocates the table to the largest power-of-two bucket count fitting in `megabytes` (min 1). */
+    public void resize(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        long buckets = Long.highestOneBit(bytes / (BUCKET_LONGS * Long.BYTES));
+        buckets = Math.min(buckets, 1L << 26); // at most 2 GB of longs
+        table = new long[(int) buckets * BUCKET_LONGS];
+        bucketMask = (int) buckets - 1;
+        age = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    /** Marks the start of a new search: older entries become preferred replacement victims. */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public int sizeMegabytes() {
+        return (int) ((long) table.length * Long.BYTES / (1024 * 1024));
+    }
+
+    /** Packed data stored for `key`, or 0 if the position is not in the table. */
+    public long probe(long key) {
+        long[] t = table;
+        int b = bucket(key);
+        for (int i = b; i < b + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = t[i + 1];
+            if (data != 0 && (t[i] ^ data) == key) return data;
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores an entry for `key`. When the position is already stored and the
+     * new entry has no move, the stored move is kept (it still orders well).
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        long[] t = table;
+        int b = bucket(key);
+        int currentAge = age;
+
+        int victim = b;
+        int victimPriority = Integer.MAX_VALUE;
+        for (int i = b; i < b + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = t[i + 1];
+            if (data == 0) { // empty slot
+                if (victimPriority > Integer.MIN_VALUE) { victim = i; victimPriority = Integer.MIN_VALUE; }
+                continue;
+            }
+            if ((t[i] ^ data) == key) { // same position: always replace
+                if (move == 0) move = move(data);
+                victim = i;
+                break;
+            }
+            int ageDiff = (currentAge - age(data)) & 0xFF;
+            int priority = depth(data) - 2 * ageDiff;
+            if (priority < victimPriority) {
+                victim = i;
+                victimPriority = priority;
+            }
+        }
+
+        long data = pack(move, score, depth, bound, currentAge);
+        t[victim] = key ^ data;
+        t[victim + 1] = data;
+    }
+
+    /** Occupied entries of the current age per thousand, sampled from the first 1000 buckets. */
+    public int hashfull() {
+        long[] t = table;
+        int n = Math.min(1000, (bucketMask + 1)) * BUCKET_LONGS, used = 0, currentAge = age;
+        for (int i = 0; i < n; i += ENTRY_LONGS) {
+            long data = t[i + 1];
+            if (data != 0 && age(data) == currentAge) used++;
+        }
+        return used * 1000 / (n / ENTRY_LONGS);
+    }
+
+    private int bucket(long key) {
+        // High bits select the bucket; the full key is checked through the XOR
+        return ((int) (key >>> 32) & bucketMask) * BUCKET_LONGS;
+    }
+
+    // --------- Packing ----------
+    static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0x3FFFFL)
+                | ((long) (score + SCORE_OFFSET) & 0xFFFFFL) << SCORE_SHIFT
+                | ((long) Math.min(Math.max(depth, 0), 255)) << DEPTH_SHIFT
+                | ((long) bound) << BOUND_SHIFT
+                | ((long) age & 0xFF) << AGE_SHIFT;
+    }
+
+    public static int move(long data)  { return (int) (data & 0x3FFFF); }
+    public static int score(long data) { return (int) ((data >>> SCORE_SHIFT) & 0xFFFFF) - SCORE_OFFSET; }
+    public static int depth(long data) { return (int) ((data >>> DEPTH_SHIFT) & 0xFF); }
+    public static int bound(long data) { return (int) ((data >>> BOUND_SHIFT) & 0x3); }
+    static int age(long data)          { return (int) ((data >>> AGE_SHIFT) & 0xFF); }
+}
@@ -0,0 +1,285 @@
+package model.board;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tabelas de ataque pré-calculadas (geradas uma única vez na carga da classe).
+ *
+ * Peças deslizantes usam "magic bitboards": a ocupação relevante do raio é
+ * multiplicada por um número mágico e o resultado indexa diretamente a tabela
+ * de ataques. Cavalo, rei e peão usam tabelas simples por casa.
+ *
+ * Casas seguem a convenção de Board: índice = row * 8 + column (0 = a8).
+ */
+public final class Attacks {
+
+    private static final int[][] ROOK_DIRS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] KNIGHT_JUMPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64]; // [Board.WHITE/BLACK][casa]
+
+    // Números mágicos encontrados por findMagic (ver main com "--magics")
+    private static final long[] ROOK_MAGIC = {
+        0x018000C00420D480L, 0x3040002000100040L, 0x8080200080100009L, 0x0880100108008004L,
+        0x0280080104008042L, 0x2200015004880200L, 0x0480008005001200L, 0x4200005C00810022L,
+        0x1040800040008020L, 0x0001002889004000L, 0x5004802000801000L, 0x5880800800100084L,
+        0x6002808004000800L, 0x000600080A002410L, 0x4002000362000C58L, 0x1042000040840102L,
+        0x2C00208000804000L, 0x0100230040048104L, 0x0000808010002002L, 0x0405420022000990L,
+        0x2504008004080080L, 0x0221010008020400L, 0x48008C0002093008L, 0x2000020002926104L,
+        0x02C0832280004008L, 0x0080810100204000L, 0x1010410100200014L, 0x0220100280080280L,
+        0x0104000808004080L, 0x108C004040020100L, 0x0C01000100020004L, 0x080E004200008104L,
+        0x0202400082800028L, 0x0000201000400040L, 0x0040100182802000L, 0x0800800800801000L,
+        0x2010480025001100L, 0x8000800400800200L, 0x0080081004000201L, 0x0210104402000091L,
+        0x1900802040008000L, 0x4000500020084000L, 0x0010001020008080L, 0x8081009000230008L,
+        0x4400080005010010L, 0x2002001008020004L, 0x8008020004010100L, 0x00090000A0410002L,
+        0x0000800100205100L, 0x0020002040100040L, 0x0041861000200580L, 0x0A10220901100100L,
+        0x1040600A0E002600L, 0x3100041020400801L, 0x1080819008020400L, 0x010005048402C600L,
+        0x0B01002840108005L, 0x0820330440002185L, 0x0006402001900901L, 0x0047020804201001L,
+        0x0005001004020801L, 0x0042000108100402L, 0x0280208802102104L, 0xA040008100402402L
+    };
+    private static final long[] BISHOP_MAGIC = {
+        0x0008200102160010L, 0x0002040104051025L, 0x8010040040490D04L, 0x0024240082100000L,
+        0x8404042000005000L, 0x0A02015088000010L, 0x28690801100A0000L, 0x4202048048084450L,
+        0x0A10624A04080280L, 0x089420A194010041L, 0x00045004A2084000L, 0x0900442401900591L,
+        0x100004050412A220L, 0xC0C08A0110480004L, 0x0020804410292800L, 0x0C004208410C10E8L,
+        0x020542089888180CL, 0x002C21080D180202L, 0x0182020104010200L, 0x020A000420220000L,
+        0x0205000090401000L, 0x0002006903012102L, 0x1000590202100400L, 0x02A6020426120260L,
+        0x0020080420480110L, 0x0030080302020450L, 0x0206410010011200L, 0x004C040084410200L,
+        0x1001001001004000L, 0x0080410002101200L, 0x0801440001040108L, 0x0004084000210420L,
+        0x024212A184408800L, 0x0C08040402104118L, 0x0020815000491400L, 0x6019010900080040L,
+        0x0018020010040900L, 0x0018034100049000L, 0x8B14041408204141L, 0x0086958090010400L,
+        0x0001041084004002L, 0x0001041120011500L, 0x0882001404000881L, 0x0008084022081021L,
+        0x58002020A0800404L, 0x09C0210040851900L, 0x0210A22801040040L, 0x0021020496006110L,
+        0x080C24041C840100L, 0x0004A20A101C0000L, 0x4100803908080069L, 0x080011002A080200L,
+        0x0000101202020008L, 0x0418042024010C80L, 0x0004206882008010L, 0x4044840084210080L,
+        0x0000420801011004L, 0x8000008208024210L, 0x00104280241A0810L, 0x4020080441048821L,
+        0x0100080808210440L, 0x000010C010011644L, 0x0000108212046400L, 0x011A720801010204L
+    };
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final long[][] BETWEEN = new long[64][64]; // casas estritamente entre a e b (mesma linha/diagonal)
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >>> 3, c = sq & 7;
+            for (int[] d : KNIGHT_JUMPS) KNIGHT[sq] |= bit(r + d[0], c + d[1]);
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dr != 0 || dc != 0) KING[sq] |= bit(r + dr, c + dc);
+                }
+            }
+            // Peão branco sobe (row - 1), peão preto desce (row + 1)
+            PAWN[Board.WHITE][sq] = bit(r - 1, c - 1) | bit(r - 1, c + 1);
+            PAWN[Board.BLACK][sq] = bit(r + 1, c - 1) | bit(r + 1, c + 1);
+        }
+
+        for (int sq = 0; sq < 64; sq++) {
+            ROOK_MASK[sq] = relevantMask(sq, ROOK_DIRS);
+            ROOK_SHIFT[sq] = 64 - Long.bitCount(ROOK_MASK[sq]);
+            ROOK_TABLE[sq] = buildTable(sq, ROOK_MASK[sq], ROOK_MAGIC[sq], ROOK_DIRS);
+
+            BISHOP_MASK[sq] = relevantMask(sq, BISHOP_DIRS);
+            BISHOP_SHIFT[sq] = 64 - Long.bitCount(BISHOP_MASK[sq]);
+            BISHOP_TABLE[sq] = buildTable(sq, BISHOP_MASK[sq], BISHOP_MAGIC[sq], BISHOP_DIRS);
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long ab = 1L << b, ba = 1L << a;
+                if ((rook(a, 0L) & ab) != 0) {
+                    BETWEEN[a][b] = rook(a, ab) & rook(b, ba);
+                } else if ((bishop(a, 0L) & ab) != 0) {
+                    BETWEEN[a][b] = bishop(a, ab) & bishop(b, ba);
+                }
+            }
+        }
+    }
+
+    private Attacks() { /* utilitário */ }
+
+    // --------- Consultas ----------
+
+    public static long knight(int sq) { return KNIGHT[sq]; }
+
+    public static long king(int sq) { return KING[sq]; }
+
+    /** Casas atacadas por um peão da cor indicada parado em sq. */
+    public static long pawn(boolean white, int sq) {
+        return PAWN[white ? Board.WHITE : Board.BLACK][sq];
+    }
+
+    public static long rook(int sq, long occupied) {
+        return ROOK_TABLE[sq][(int) (((occupied & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    public static long bishop(int sq, long occupied) {
+        return BISHOP_TABLE[sq][(int) (((occupied & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    public static long queen(int sq, long occupied) {
+        return rook(sq, occupied) | bishop(sq, occupied);
+    }
+
+    /** Casas estritamente entre a e b se alinhadas (linha, coluna ou diagonal); 0 caso contrário. */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    // --------- Geração ----------
+
+    private static long bit(int r, int c) {
+        return (r >= 0 && r < 8 && c >= 0 && c < 8) ? 1L << ((r << 3) | c) : 0L;
+    }
+
+    /** Casas do raio cuja ocupação importa (exclui a borda final de cada direção). */
+    private static long relevantMask(int sq, int[][] dirs) {
+        long mask = 0L;
+        for (int[] d : dirs) {
+            int r = (sq >>> 3) + d[0], c = (sq & 7) + d[1];
+            while (r + d[0] >= 0 && r + d[0] < 8 && c + d[1] >= 0 && c + d[1] < 8) {
+                mask |= bit(r, c);
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Ataques de referência caminhando casa a casa, como o antigo addRay das
+     * peças: o raio para na primeira casa ocupada (que é incluída).
+     */
+    static long slidingAttacks(int sq, long occupied, int[][] dirs) {
+        long attacks = 0L;
+        for (int[] d : dirs) {
+            int r = (sq >>> 3) + d[0], c = (sq & 7) + d[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long b = bit(r, c);
+                attacks |= b;
+                if ((occupied & b) != 0) break; // bloqueia após encontrar qualquer peça
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    /** Enumera o subconjunto de índice "index" dos bits de mask. */
+    private static long subset(int index, long mask) {
+        long occ = 0L;
+        for (int i = 0; mask != 0; i++, mask &= mask - 1) {
+            if ((index & (1 << i)) != 0) occ |= Long.lowestOneBit(mask);
+        }
+        return occ;
+    }
+
+    /** Preenche a tabela de uma casa; uma colisão destrutiva indica número mágico inválido. */
+    private static long[] buildTable(int sq, long mask, long magic, int[][] dirs) {
+        int bits = Long.bitCount(mask);
+        long[] table = new long[1 << bits];
+        boolean[] used = new boolean[table.length];
+        for (int i = 0; i < table.length; i++) {
+            long occ = subset(i, mask);
+            long att = slidingAttacks(sq, occ, dirs);
+            int idx = (int) ((occ * magic) >>> (64 - bits));
+            if (used[idx] && table[idx] != att) {
+                throw new IllegalStateException("Número mágico inválido na casa " + Position.of(sq));
+            }
+            used[idx] = true;
+            table[idx] = att;
+        }
+        return table;
+    }
+
+    /**
+     * Busca aleatória (candidatos esparsos) de um número mágico sem colisões
+     * destrutivas. Usada apenas para regenerar as constantes acima.
+     */
+    private static long findMagic(int sq, long mask, int[][] dirs, Random rnd) {
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occ = new long[size];
+        long[] att = new long[size];
+        for (int i = 0; i < size; i++) {
+            occ[i] = subset(i, mask);
+            att[i] = slidingAttacks(sq, occ[i], dirs);
+        }
+        long[] table = new long[size];
+        boolean[] used = new boolean[size];
+        while (true) {
+            long magic = rnd.nextLong() & rnd.nextLong() & rnd.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) continue;
+
+            Arrays.fill(used, false);
+            boolean ok = true;
+            for (int i = 0; i < size && ok; i++) {
+                int idx = (int) ((occ[i] * magic) >>> (64 - bits));
+                if (!used[idx]) {
+                    used[idx] = true;
+                    table[idx] = att[i];
+                } else if (table[idx] != att[i]) {
+                    ok = false;
+                }
+            }
+            if (ok) return magic;
+        }
+    }
+
+    // --------- Auto-verificação ----------
+
+    /**
+     * Compara as tabelas mágicas com o caminhamento de raios para todas as
+     * ocupações relevantes de todas as casas.
+     *
+     * @throws IllegalStateException na primeira divergência encontrada
+     */
+    public static void selfCheck() {
+        for (int sq = 0; sq < 64; sq++) {
+            checkSquare(sq, ROOK_MASK[sq], ROOK_DIRS, true);
+            checkSquare(sq, BISHOP_MASK[sq], BISHOP_DIRS, false);
+        }
+    }
+
+    private static void checkSquare(int sq, long mask, int[][] dirs, boolean rook) {
+        int size = 1 << Long.bitCount(mask);
+        for (int i = 0; i < size; i++) {
+            // Ocupação fora da máscara não pode alterar o resultado
+            long occ = subset(i, mask) | (~mask & (0x9249249249249249L >>> (i & 7)));
+            long expected = slidingAttacks(sq, occ, dirs);
+            long actual = rook ? rook(sq, occ) : bishop(sq, occ);
+            if (expected != actual) {
+                throw new IllegalStateException((rook ? "Torre" : "Bispo") + " divergente na casa "
+                        + Position.of(sq) + " (ocupação " + Long.toHexString(occ) + ")");
+            }
+        }
+    }
+
+    /** Executa a auto-verificação; com "--magics" imprime um novo conjunto de números mágicos. */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--magics")) {
+            Random rnd = new Random(0x5EEDC0DEL);
+            for (int[][] dirs : new int[][][] {ROOK_DIRS, BISHOP_DIRS}) {
+                System.out.println(dirs == ROOK_DIRS ? "ROOK_MAGIC" : "BISHOP_MAGIC");
+                for (int sq = 0; sq < 64; sq++) {
+                    long magic = findMagic(sq, relevantMask(sq, dirs), dirs, rnd);
+                    System.out.printf("0x%016XL,%s", magic, (sq & 3) == 3 ? "\n" : " ");
+                }
+            }
+            return;
+        }
+        long t0 = System.nanoTime();
+        selfCheck();
+        System.out.printf("Tabelas de ataque OK (%.1f ms)%n", (System.nanoTime() - t0) / 1e6);
+    }
+}
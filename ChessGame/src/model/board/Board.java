@@ -1,14 +1,42 @@
-// ========================= src/model/board/Board.java =========================
 package model.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import model.pieces.Piece;
 
-
+/**
+ * Tabuleiro em bitboards: um long por tipo de peça e cor, mais máscaras de
+ * ocupação por cor e total. A casa de índice i corresponde a row * 8 + column
+ * (0 = a8, 63 = h1), a mesma orientação de Position.
+ *
+ * Um espelho Piece[64] mantém a API antiga (get/set/pieces) funcionando como
+ * adaptador para controller.Game e para as classes de peças.
+ */
 public class Board {
 
-    private final Piece[][] grid = new Piece[8][8];
+    /** Índices de cor usados nos arrays de bitboards. */
+    public static final int WHITE = 0, BLACK = 1;
+
+    private final long[] pieceBB = new long[12];   // [cor * 6 + tipo]
+    private final long[] colorBB = new long[2];    // ocupação por cor
+    private long occupied;                         // ocupação total
+    private final Piece[] squares = new Piece[64]; // adaptador casa -> peça
+    private long zobrist;                          // chave Zobrist da disposição das peças
+
+    // Somas de avaliação (PieceSquareTables), mantidas em set/remove: material + PST
+    // de meio-jogo e de final (brancas - pretas) e material total das duas cores
+    private int mgScore, egScore, material;
+
+    /** Índice 0..63 da casa (row * 8 + column). */
+    public static int square(int row, int column) {
+        return (row << 3) | column;
+    }
+
+    /** Índice 0..63 da posição (assume posição válida). */
+    public static int square(Position p) {
+        return square(p.getRow(), p.getColumn());
+    }
 
     /** Verifica se a posição está dentro do tabuleiro (0..7). */
     public boolean isInside(Position p) {
@@ -17,7 +45,12 @@ public class Board {
 
     /** Retorna a peça na posição ou null se vazio/fora. */
     public Piece get(Position p) {
-        return isInside(p) ? grid[p.getRow()][p.getColumn()] : null;
+        return isInside(p) ? squares[square(p)] : null;
+    }
+
+    /** Retorna a peça na casa 0..63 (ou null). */
+    public Piece get(int sq) {
+        return squares[sq];
     }
 
     /**
@@ -25,19 +58,24 @@ public class Board {
      * Não valida legalidade de movimento — responsabilidade da lógica de jogo.
      */
     public void set(Position p, Piece piece) {
-        if (!isInside(p)) return;
-        grid[p.getRow()][p.getColumn()] = piece;
-        if (piece != null) {
-            // Mantém referência de posição da peça sincronizada
-            piece.setPosition(p);
-        }
+        if (isInside(p)) set(square(p), piece);
+    }
+
+    /** Define a peça na casa 0..63 (null esvazia a casa). */
+    public void set(int sq, Piece piece) {
+        if (squares[sq] != null) clearSquare(sq);
+        if (piece != null) putPiece(sq, piece);
     }
 
     /** Remove e retorna a peça da posição (ou null). */
     public Piece remove(Position p) {
-        if (!isInside(p)) return null;
-        Piece old = grid[p.getRow()][p.getColumn()];
-        grid[p.getRow()][p.getColumn()] = null;
+        return isInside(p) ? remove(square(p)) : null;
+    }
+
+    /** Remove e retorna a peça da casa 0..63 (ou null). */
+    public Piece remove(int sq) {
+        Piece old = squares[sq];
+        if (old != null) clearSquare(sq);
         return old;
     }
 
@@ -46,6 +84,11 @@ public class Board {
         return get(p) == null;
     }
 
+    /** Retorna true se a casa 0..63 estiver vazia. */
+    public boolean isEmpty(int sq) {
+        return (occupied & (1L << sq)) == 0;
+    }
+
     /** Atalho usado no setup inicial. */
     public void placePiece(Piece piece, Position p) {
         set(p, piece);
@@ -53,21 +96,113 @@ public class Board {
 
     /** Limpa completamente o tabuleiro. */
     public void clear() {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                grid[r][c] = null;
-            }
-        }
+        Arrays.fill(pieceBB, 0L);
+        colorBB[WHITE] = colorBB[BLACK] = 0L;
+        occupied = 0L;
+        zobrist = 0L;
+        Arrays.fill(squares, null);
+        mgScore = egScore = material = 0;
     }
 
-    /** Lista todas as peças de uma cor. */
+    // --------- Bitboards ----------
+
+    /** Bitboard das peças de um tipo (Piece.PAWN..Piece.KING) e cor. */
+    public long bitboard(boolean white, int type) {
+        return pieceBB[index(white, type)];
+    }
+
+    /** Bitboard de todas as peças de uma cor. */
+    public long occupancy(boolean white) {
+        return colorBB[white ? WHITE : BLACK];
+    }
+
+    /** Bitboard de todas as casas ocupadas. */
+    public long occupancy() {
+        return occupied;
+    }
+
+    /**
+     * Chave Zobrist apenas da disposição das peças (mantida em set/remove).
+     * Lado a jogar, roque e en passant ficam por conta de controller.Game.
+     */
+    public long zobristKey() {
+        return zobrist;
+    }
+
+    private static int index(boolean white, int type) {
+        return (white ? WHITE : BLACK) * 6 + type;
+    }
+
+    private void putPiece(int sq, Piece piece) {
+        long bit = 1L << sq;
+        pieceBB[index(piece.isWhite(), piece.getType())] |= bit;
+        colorBB[piece.isWhite() ? WHITE : BLACK] |= bit;
+        occupied |= bit;
+        zobrist ^= Zobrist.piece(piece.isWhite(), piece.getType(), sq);
+        squares[sq] = piece;
+
+        mgScore += PieceSquareTables.mg(piece.isWhite(), piece.getType(), sq);
+        egScore += PieceSquareTables.eg(piece.isWhite(), piece.getType(), sq);
+        material += PieceSquareTables.value(piece.getType());
+    }
+
+    private void clearSquare(int sq) {
+        Piece old = squares[sq];
+        long bit = ~(1L << sq);
+        pieceBB[index(old.isWhite(), old.getType())] &= bit;
+        colorBB[old.isWhite() ? WHITE : BLACK] &= bit;
+        occupied &= bit;
+        zobrist ^= Zobrist.piece(old.isWhite(), old.getType(), sq);
+        squares[sq] = null;
+
+        mgScore -= PieceSquareTables.mg(old.isWhite(), old.getType(), sq);
+        egScore -= PieceSquareTables.eg(old.isWhite(), old.getType(), sq);
+        material -= PieceSquareTables.value(old.getType());
+    }
+
+    /** Material + PST de meio-jogo, brancas menos pretas (mantido incrementalmente). */
+    public int mgScore() {
+        return mgScore;
+    }
+
+    /** Material + PST de final, brancas menos pretas (mantido incrementalmente). */
+    public int egScore() {
+        return egScore;
+    }
+
+    /** Material total das duas cores, reis incluídos (critério de final). */
+    public int material() {
+        return material;
+    }
+
+    /**
+     * Avaliação estática do ponto de vista das brancas: escolhe a soma de final
+     * ou de meio-jogo conforme o material restante. Custo O(1).
+     */
+    public int evaluate() {
+        return material < PieceSquareTables.ENDGAME_MATERIAL ? egScore : mgScore;
+    }
+
+    /** Casa 0..63 do rei da cor, em O(1) (primeiro bit do bitboard do rei); -1 se não houver rei. */
+    public int kingSquare(boolean white) {
+        long kings = pieceBB[index(white, Piece.KING)];
+        return kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    /** Número de peças da cor (inclui o rei). */
+    public int pieceCount(boolean white) {
+        return Long.bitCount(occupancy(white));
+    }
+
+    /**
+     * Lista todas as peças de uma cor (nova lista). Para percorrer sem alocar,
+     * itere os bits de occupancy(white) (ou de bitboard(white, tipo)).
+     */
     public List<Piece> pieces(boolean white) {
         List<Piece> out = new ArrayList<>();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece pc = grid[r][c];
-                if (pc != null && pc.isWhite() == white) out.add(pc);
-            }
+        // Percorre os bits em ordem crescente (mesma ordem da antiga varredura linha a linha)
+        for (long bb = occupancy(white); bb != 0; bb &= bb - 1) {
+            out.add(squares[Long.numberOfTrailingZeros(bb)]);
         }
         return out;
     }
@@ -78,22 +213,20 @@ public class Board {
     }
 
     /**
-     * Cópia profunda do tabuleiro (clona peças para o novo Board).
-     * Requer que Piece.copyFor(b) crie uma nova peça já associada ao Board b,
-     * preservando cor/estado (ex.: moved) e que aqui definimos a Position corretamente.
+     * Cópia do tabuleiro. As peças são flyweights imutáveis, então basta copiar
+     * os arrays (bitboards e espelho Piece[64]) — nenhuma peça é clonada.
      */
     public Board copy() {
         Board b = new Board();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = grid[r][c];
-                if (p != null) {
-                    Piece cp = p.copyFor(b);                 // nova peça ligada ao Board "b"
-                    b.grid[r][c] = cp;                       // atribui diretamente (evita set() duplicado)
-                    cp.setPosition(new Position(r, c));      // sincroniza a posição do clone
-                }
-            }
-        }
+        System.arraycopy(pieceBB, 0, b.pieceBB, 0, pieceBB.length);
+        b.colorBB[WHITE] = colorBB[WHITE];
+        b.colorBB[BLACK] = colorBB[BLACK];
+        b.occupied = occupied;
+        b.zobrist = zobrist;
+        System.arraycopy(squares, 0, b.squares, 0, squares.length);
+        b.mgScore = mgScore;
+        b.egScore = egScore;
+        b.material = material;
         return b;
     }
 }
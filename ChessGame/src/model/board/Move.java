@@ -74,6 +74,79 @@ public class Move {
         return Objects.hash(from, to, moved, promotion, castleKingSide, castleQueenSide, enPassant);
     }
 
+    // --- Codificação compacta em int ---
+    // bits 0-5: casa de origem (0..63) | bits 6-11: casa de destino
+    // bits 12-14: tipo da peça promovida (Piece.KNIGHT..Piece.QUEEN, 0 = nenhuma)
+    // bit 15: captura | bit 16: en passant | bit 17: roque
+    public static final int NONE = 0;
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLE = 1 << 17;
+
+    public static int encode(int from, int to, int promotionType, int flags) {
+        return from | (to << 6) | (promotionType << 12) | flags;
+    }
+
+    public static int fromSquare(int move) { return move & 63; }
+    public static int toSquare(int move) { return (move >>> 6) & 63; }
+    public static int promotionType(int move) { return (move >>> 12) & 7; }
+    public static boolean isCapture(int move) { return (move & CAPTURE) != 0; }
+    public static boolean isEnPassant(int move) { return (move & EN_PASSANT) != 0; }
+    public static boolean isCastle(int move) { return (move & CASTLE) != 0; }
+
+    /** Símbolo da promoção ('Q','R','B','N') ou null. */
+    public static Character promotionSymbol(int move) {
+        return switch (promotionType(move)) {
+            case Piece.KNIGHT -> 'N';
+            case Piece.BISHOP -> 'B';
+            case Piece.ROOK -> 'R';
+            case Piece.QUEEN -> 'Q';
+            default -> null;
+        };
+    }
+
+    /** Tipo de peça para um símbolo de promoção ('Q','R','B','N'; null = sem promoção). */
+    public static int promotionType(Character symbol) {
+        if (symbol == null) return 0;
+        return switch (Character.toUpperCase(symbol)) {
+            case 'N' -> Piece.KNIGHT;
+            case 'B' -> Piece.BISHOP;
+            case 'R' -> Piece.ROOK;
+            default -> Piece.QUEEN;
+        };
+    }
+
+    /** Codifica este lance como int. */
+    public int toInt() {
+        int flags = (captured != null ? CAPTURE : 0) | (enPassant ? EN_PASSANT : 0)
+                | (castleKingSide || castleQueenSide ? CASTLE : 0);
+        return encode(Board.square(from), Board.square(to), promotionType(promotion), flags);
+    }
+
+    /**
+     * Decodifica um lance int em objeto (para a UI). Deve ser chamado com o
+     * tabuleiro ainda na posição anterior ao lance, para ler peça movida e capturada.
+     */
+    public static Move fromInt(int move, Board board) {
+        int from = fromSquare(move), to = toSquare(move);
+        Position f = Position.of(from);
+        Position t = Position.of(to);
+        Piece moved = board.get(from);
+        if (isCastle(move)) return castle(f, t, moved, t.getColumn() == 6);
+        if (isEnPassant(move)) return enPassant(f, t, moved, board.get(Board.square(f.getRow(), t.getColumn())));
+        Character promo = promotionSymbol(move);
+        if (promo != null) return promotion(f, t, moved, board.get(to), promo);
+        return normal(f, t, moved, board.get(to));
+    }
+
+    /** Notação de coordenadas (ex.: "e2e4", "e7e8q"). */
+    public static String toString(int move) {
+        int from = fromSquare(move), to = toSquare(move);
+        String s = "" + Position.of(from) + Position.of(to);
+        Character promo = promotionSymbol(move);
+        return promo == null ? s : s + Character.toLowerCase(promo);
+    }
+
     // --- Fábricas convenientes ---
     public static Move normal(Position from, Position to, Piece moved, Piece captured) {
         return new Move(from, to, moved, captured, false, false, false, null);
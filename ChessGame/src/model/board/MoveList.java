@@ -0,0 +1,65 @@
+package model.board;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista de lances codificados em int (ver Move.encode), sobre um int[] de
+ * tamanho fixo. Pensada para ser reutilizada: a busca mantém uma lista por
+ * ply e só chama clear(), sem alocar nada por nó.
+ *
+ * Cada lance tem um score associado (ordenação de lances).
+ */
+public final class MoveList {
+
+    /** Limite superior de lances legais em uma posição de xadrez (218). */
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private final int[] scores = new int[CAPACITY];
+    private int size;
+
+    /** Cria uma lista por ply, para reaproveitamento durante a busca. */
+    public static MoveList[] stack(int plies) {
+        MoveList[] lists = new MoveList[plies];
+        for (int i = 0; i < plies; i++) lists[i] = new MoveList();
+        return lists;
+    }
+
+    public void clear() { size = 0; }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void add(int move) {
+        scores[size] = 0;
+        moves[size++] = move;
+    }
+
+    public int get(int i) { return moves[i]; }
+
+    public int score(int i) { return scores[i]; }
+
+    public void setScore(int i, int score) { scores[i] = score; }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) return true;
+        }
+        return false;
+    }
+
+    /** Troca as entradas i e j (lance e score). */
+    public void swap(int i, int j) {
+        int m = moves[i]; moves[i] = moves[j]; moves[j] = m;
+        int s = scores[i]; scores[i] = scores[j]; scores[j] = s;
+    }
+
+    /** Converte para objetos Move (para a UI); o tabuleiro deve estar na posição de origem. */
+    public List<Move> toMoves(Board board) {
+        List<Move> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(Move.fromInt(moves[i], board));
+        return out;
+    }
+}
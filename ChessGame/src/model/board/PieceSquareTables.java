@@ -0,0 +1,160 @@
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Valores de material e tabelas peça-casa (PST) usados pela avaliação.
+ *
+ * As tabelas estão na orientação de Position (linha 0 = oitava fileira) do
+ * ponto de vista das brancas; para as pretas a linha é espelhada. Os valores
+ * combinados (material + PST, positivos para as brancas e negativos para as
+ * pretas) são pré-calculados por cor, tipo e casa, para que Board mantenha as
+ * somas de meio-jogo e final incrementalmente a cada set/remove.
+ */
+public final class PieceSquareTables {
+
+    /** Valor de material por tipo (Piece.PAWN..Piece.KING). */
+    private static final int[] VALUE = {10, 30, 30, 50, 90, 900};
+
+    /** Abaixo deste material total (reis incluídos) a posição é avaliada como final. */
+    public static final int ENDGAME_MATERIAL = 300;
+
+    private static final int[][] PAWN_POS_TABLE = {
+        {0, 0, 0, 0, 0, 0, 0, 0},
+        {50, 50, 50, 50, 50, 50, 50, 50},
+        {10, 10, 20, 30, 30, 20, 10, 10},
+        {5, 5, 10, 25, 25, 10, 5, 5},
+        {0, 0, 0, 20, 20, 0, 0, 0},
+        {5, -5, -10, 0, 0, -10, -5, 5},
+        {5, 10, 10, -20, -20, 10, 10, 5},
+        {0, 0, 0, 0, 0, 0, 0, 0}
+    };
+    private static final int[][] KNIGHT_POS_TABLE = {
+        {-50, -40, -30, -30, -30, -30, -40, -50},
+        {-40, -20, 0, 5, 5, 0, -20, -40},
+        {-30, 5, 10, 15, 15, 10, 5, -30},
+        {-30, 0, 15, 20, 20, 15, 0, -30},
+        {-30, 5, 15, 20, 20, 15, 5, -30},
+        {-30, 0, 10, 15, 15, 10, 0, -30},
+        {-40, -20, 0, 0, 0, 0, -20, -40},
+        {-50, -40, -30, -30, -30, -30, -40, -50}
+    };
+    private static final int[][] BISHOP_POS_TABLE = {
+        {-20, -10, -10, -10, -10, -10, -10, -20},
+        {-10, 0, 0, 0, 0, 0, 0, -10},
+        {-10, 0, 5, 10, 10, 5, 0, -10},
+        {-10, 5, 5, 10, 10, 5, 5, -10},
+        {-10, 0, 10, 10, 10, 10, 0, -10},
+        {-10, 10, 10, 10, 10, 10, 10, -10},
+        {-10, 5, 0, 0, 0, 0, 5, -10},
+        {-20, -10, -10, -10, -10, -10, -10, -20}
+    };
+    private static final int[][] ROOK_POS_TABLE = {
+        {0, 0, 0, 0, 0, 0, 0, 0},
+        {5, 10, 10, 10, 10, 10, 10, 5},
+        {-5, 0, 0, 0, 0, 0, 0, -5},
+        {-5, 0, 0, 0, 0, 0, 0, -5},
+        {-5, 0, 0, 0, 0, 0, 0, -5},
+        {-5, 0, 0, 0, 0, 0, 0, -5},
+        {-5, 0, 0, 0, 0, 0, 0, -5},
+        {0, 0, 0, 5, 5, 0, 0, 0}
+    };
+    private static final int[][] QUEEN_POS_TABLE = {
+        {-20, -10, -10, -5, -5, -10, -10, -20},
+        {-10, 0, 0, 0, 0, 0, 0, -10},
+        {-10, 0, 5, 5, 5, 5, 0, -10},
+        {-5, 0, 5, 5, 5, 5, 0, -5},
+        {0, 0, 5, 5, 5, 5, 0, -5},
+        {-10, 5, 5, 5, 5, 5, 0, -10},
+        {-10, 0, 5, 0, 0, 0, 0, -10},
+        {-20, -10, -10, -5, -5, -10, -10, -20}
+    };
+    private static final int[][] KING_MID_POS_TABLE = { // Meio Jogo
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-30, -40, -40, -50, -50, -40, -40, -30},
+        {-20, -30, -30, -40, -40, -30, -30, -20},
+        {-10, -20, -20, -20, -20, -20, -20, -10},
+        {20, 20, 0, 0, 0, 0, 20, 20},
+        {20, 30, 10, 0, 0, 10, 30, 20}
+    };
+    private static final int[][] KING_END_POS_TABLE = { // Final de Jogo
+        {-50, -30, -30, -30, -30, -30, -30, -50},
+        {-30, -10, -10, -10, -10, -10, -10, -30},
+        {-30, -10, 20, 30, 30, 20, -10, -30},
+        {-30, -10, 30, 40, 40, 30, -10, -30},
+        {-30, -10, 30, 40, 40, 30, -10, -30},
+        {-30, -10, 20, 30, 30, 20, -10, -30},
+        {-30, -30, 0, 0, 0, 0, -30, -30},
+        {-50, -30, -30, -30, -30, -30, -30, -50}
+    };
+
+    private static final int[][] MG = new int[12][64]; // [cor * 6 + tipo][casa], com sinal
+    private static final int[][] EG = new int[12][64];
+
+    /**
+     * Maior ganho de avaliação de um lance quieto (sem captura nem promoção),
+     * em meio-jogo ou final: base das margens de poda da busca (SearchParams).
+     */
+    public static final int MAX_QUIET_GAIN;
+
+    static {
+        int[][][] mid = {PAWN_POS_TABLE, KNIGHT_POS_TABLE, BISHOP_POS_TABLE, ROOK_POS_TABLE, QUEEN_POS_TABLE, KING_MID_POS_TABLE};
+        int[][][] end = {PAWN_POS_TABLE, KNIGHT_POS_TABLE, BISHOP_POS_TABLE, ROOK_POS_TABLE, QUEEN_POS_TABLE, KING_END_POS_TABLE};
+        for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+            for (int sq = 0; sq < 64; sq++) {
+                int r = sq >>> 3, c = sq & 7;
+                MG[Board.WHITE * 6 + type][sq] = VALUE[type] + mid[type][r][c];
+                EG[Board.WHITE * 6 + type][sq] = VALUE[type] + end[type][r][c];
+                MG[Board.BLACK * 6 + type][sq] = -(VALUE[type] + mid[type][7 - r][c]);
+                EG[Board.BLACK * 6 + type][sq] = -(VALUE[type] + end[type][7 - r][c]);
+            }
+        }
+        MAX_QUIET_GAIN = Math.max(maxQuietGain(MG), maxQuietGain(EG));
+    }
+
+    // Maior variação, para as brancas, de um lance quieto no tabuleiro vazio (as pretas são o espelho)
+    private static int maxQuietGain(int[][] table) {
+        int best = 0;
+        for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+            int[] t = table[Board.WHITE * 6 + type];
+            for (int from = 0; from < 64; from++) {
+                long targets = switch (type) {
+                    case Piece.PAWN -> from >= 16 && from < 56 // avanços sem promoção
+                            ? 1L << (from - 8) | (from >= 48 ? 1L << (from - 16) : 0L) : 0L;
+                    case Piece.KNIGHT -> Attacks.knight(from);
+                    case Piece.BISHOP -> Attacks.bishop(from, 0L);
+                    case Piece.ROOK -> Attacks.rook(from, 0L);
+                    case Piece.QUEEN -> Attacks.rook(from, 0L) | Attacks.bishop(from, 0L);
+                    default -> Attacks.king(from);
+                };
+                for (long b = targets; b != 0; b &= b - 1) {
+                    best = Math.max(best, t[Long.numberOfTrailingZeros(b)] - t[from]);
+                }
+            }
+        }
+        // Roques: rei e torre se movem juntos (e1 = 60, g1 = 62, c1 = 58; torres h1 = 63 -> f1 = 61, a1 = 56 -> d1 = 59)
+        int[] king = table[Board.WHITE * 6 + Piece.KING], rook = table[Board.WHITE * 6 + Piece.ROOK];
+        best = Math.max(best, king[62] - king[60] + rook[61] - rook[63]);
+        best = Math.max(best, king[58] - king[60] + rook[59] - rook[56]);
+        return best;
+    }
+
+    private PieceSquareTables() { /* utilitário */ }
+
+    /** Valor de material do tipo de peça. */
+    public static int value(int type) {
+        return VALUE[type];
+    }
+
+    /** Material + PST de meio-jogo da peça na casa (positivo para brancas, negativo para pretas). */
+    public static int mg(boolean white, int type, int sq) {
+        return MG[(white ? Board.WHITE : Board.BLACK) * 6 + type][sq];
+    }
+
+    /** Material + PST de final da peça na casa (positivo para brancas, negativo para pretas). */
+    public static int eg(boolean white, int type, int sq) {
+        return EG[(white ? Board.WHITE : Board.BLACK) * 6 + type][sq];
+    }
+}
@@ -1,18 +1,37 @@
 // ========================= src/model/board/Position.java =========================
 package model.board;
 
-import java.util.Objects;
-
 public final class Position {
 
     private final int row;    // 0..7 (0 = topo / linha 8, 7 = fundo / linha 1)
     private final int column; // 0..7 (0 = 'a', 7 = 'h')
 
-    public Position(int row, int column) {
+    // Uma instância por casa do tabuleiro, compartilhada (índice row * 8 + column)
+    private static final Position[] SQUARES = new Position[64];
+    static {
+        for (int sq = 0; sq < 64; sq++) SQUARES[sq] = new Position(sq >>> 3, sq & 7);
+    }
+
+    private Position(int row, int column) {
         this.row = row;
         this.column = column;
     }
 
+    /**
+     * Posição (row, column). Casas do tabuleiro retornam a instância interna,
+     * sem alocar; coordenadas fora do tabuleiro geram um objeto inválido
+     * (isValid() == false), como antes.
+     */
+    public static Position of(int row, int column) {
+        if ((row | column) >= 0 && row < 8 && column < 8) return SQUARES[(row << 3) | column];
+        return new Position(row, column);
+    }
+
+    /** Posição da casa 0..63 (row * 8 + column). */
+    public static Position of(int square) {
+        return SQUARES[square];
+    }
+
     public int getRow() { return row; }
     public int getColumn() { return column; }
 
@@ -31,7 +50,7 @@ public final class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return row * 8 + column; // índice da casa para posições válidas
     }
 
     /** Notação algébrica padrão (ex: a1, e4, h8). */
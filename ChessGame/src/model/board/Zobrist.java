@@ -0,0 +1,57 @@
+package model.board;
+
+import java.util.Random;
+
+/**
+ * Chaves aleatórias de 64 bits para hashing Zobrist de posições.
+ *
+ * A chave de uma posição é o XOR das chaves de cada peça em sua casa, do lado
+ * a jogar, dos direitos de roque e da coluna de en passant. Como XOR é a sua
+ * própria inversa, a chave é atualizada incrementalmente a cada lance.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE = new long[12][64]; // [cor * 6 + tipo][casa]
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        // Semente fixa: chaves reprodutíveis entre execuções (útil para livros/tabelas salvas)
+        Random rnd = new Random(0x2B992DDFA23249D6L);
+        for (long[] keys : PIECE) {
+            for (int sq = 0; sq < 64; sq++) keys[sq] = rnd.nextLong();
+        }
+        // Sem direitos de roque = chave 0; demais combinações são o XOR dos bits
+        long[] single = {rnd.nextLong(), rnd.nextLong(), rnd.nextLong(), rnd.nextLong()};
+        for (int rights = 1; rights < 16; rights++) {
+            for (int b = 0; b < 4; b++) {
+                if ((rights & (1 << b)) != 0) CASTLING[rights] ^= single[b];
+            }
+        }
+        for (int f = 0; f < 8; f++) EN_PASSANT_FILE[f] = rnd.nextLong();
+        BLACK_TO_MOVE = rnd.nextLong();
+    }
+
+    private Zobrist() { /* utilitário */ }
+
+    /** Chave da peça (tipo Piece.PAWN..Piece.KING) de uma cor na casa 0..63. */
+    public static long piece(boolean white, int type, int sq) {
+        return PIECE[(white ? Board.WHITE : Board.BLACK) * 6 + type][sq];
+    }
+
+    /** Chave da combinação de direitos de roque (máscara de 4 bits de controller.Game). */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /** Chave da coluna (0..7) da casa de en passant. */
+    public static long enPassant(int column) {
+        return EN_PASSANT_FILE[column];
+    }
+
+    /** Chave aplicada quando as pretas estão a jogar. */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
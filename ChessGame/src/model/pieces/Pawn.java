@@ -1,13 +1,14 @@
 // ========================= src/model/pieces/Pawn.java =========================
 package model.pieces;
 
-import java.util.*;
 import model.board.*;
 
 public class Pawn extends Piece {
 
-    public Pawn(Board b, boolean w) {
-        super(b, w);
+    public static final Pawn WHITE = new Pawn(true), BLACK = new Pawn(false);
+
+    private Pawn(boolean w) {
+        super(w);
     }
 
     @Override
@@ -16,46 +17,26 @@ public class Pawn extends Piece {
     }
 
     @Override
-    public Piece copyFor(Board newBoard) {
-        Pawn clone = new Pawn(newBoard, isWhite);
-        clone.moved = this.moved;
-        if (this.position != null) {
-            clone.setPosition(new Position(position.getRow(), position.getColumn()));
-        }
-        return clone;
+    public int getType() {
+        return PAWN;
     }
 
     @Override
-    public List<Position> getPossibleMoves() {
-        List<Position> moves = new ArrayList<>();
-        int dir = isWhite ? -1 : 1;
-
-        // Um passo à frente
-        Position f1 = new Position(position.getRow() + dir, position.getColumn());
-        if (f1.isValid() && board.get(f1) == null) {
-            moves.add(f1);
-
-            // Dois passos à frente (se ainda não moveu)
-            Position f2 = new Position(position.getRow() + 2 * dir, position.getColumn());
-            if (!moved && f2.isValid() && board.get(f2) == null) {
-                moves.add(f2);
-            }
-        }
+    public long moveMask(Board board, int from) {
+        int dir = isWhite ? -8 : 8;
+        long occ = board.occupancy();
 
         // Capturas diagonais
-        Position left = new Position(position.getRow() + dir, position.getColumn() - 1);
-        Position right = new Position(position.getRow() + dir, position.getColumn() + 1);
+        long moves = Attacks.pawn(isWhite, from) & board.occupancy(!isWhite);
 
-        if (left.isValid()) {
-            Piece target = board.get(left);
-            if (target != null && target.isWhite() != isWhite) {
-                moves.add(left);
-            }
-        }
-        if (right.isValid()) {
-            Piece target = board.get(right);
-            if (target != null && target.isWhite() != isWhite) {
-                moves.add(right);
+        // Um passo à frente
+        int one = from + dir;
+        if (one >= 0 && one < 64 && (occ & (1L << one)) == 0) {
+            moves |= 1L << one;
+
+            // Dois passos à frente (se ainda está na linha inicial)
+            if ((from >>> 3) == (isWhite ? 6 : 1) && (occ & (1L << (one + dir))) == 0) {
+                moves |= 1L << (one + dir);
             }
         }
 
@@ -64,16 +45,7 @@ public class Pawn extends Piece {
     }
 
     @Override
-    public List<Position> getAttacks() {
-        List<Position> attacks = new ArrayList<>();
-        int dir = isWhite ? -1 : 1;
-
-        Position left = new Position(position.getRow() + dir, position.getColumn() - 1);
-        Position right = new Position(position.getRow() + dir, position.getColumn() + 1);
-
-        if (left.isValid()) attacks.add(left);
-        if (right.isValid()) attacks.add(right);
-
-        return attacks;
+    public long attackMask(Board board, int from) {
+        return Attacks.pawn(isWhite, from);
     }
 }
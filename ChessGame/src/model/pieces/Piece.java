@@ -3,50 +3,75 @@ package model.pieces;
 
 
 import model.board.Board;
+import model.board.PieceSquareTables;
 import model.board.Position;
 import java.util.*;
 
 
+// Peças são flyweights imutáveis: uma instância por tipo e cor, compartilhada
+// por todos os tabuleiros. Posição e estado (roque) ficam em Board/Game.
 public abstract class Piece {
-protected Position position;
+// Tipos de peça (índices dos bitboards em Board)
+public static final int PAWN = 0, KNIGHT = 1, BISHOP = 2, ROOK = 3, QUEEN = 4, KING = 5;
+
+
 protected final boolean isWhite;
-protected final Board board;
-protected boolean moved = false;
 
 
-public Piece(Board board, boolean isWhite) {
-this.board = board; this.isWhite = isWhite;
+protected Piece(boolean isWhite) {
+this.isWhite = isWhite;
+}
+
+
+// Instância compartilhada do tipo (PAWN..KING) e cor
+public static Piece of(int type, boolean white){
+return switch (type) {
+case PAWN -> white ? Pawn.WHITE : Pawn.BLACK;
+case KNIGHT -> white ? Knight.WHITE : Knight.BLACK;
+case BISHOP -> white ? Bishop.WHITE : Bishop.BLACK;
+case ROOK -> white ? Rook.WHITE : Rook.BLACK;
+case QUEEN -> white ? Queen.WHITE : Queen.BLACK;
+case KING -> white ? King.WHITE : King.BLACK;
+default -> throw new IllegalArgumentException("Tipo de peça inválido: " + type);
+};
 }
 
 
 public boolean isWhite(){ return isWhite; }
-public Position getPosition(){ return position; }
-public void setPosition(Position position){ this.position = position; }
-public boolean hasMoved(){ return moved; }
-public void setMoved(boolean moved){ this.moved = moved; }
 
 
-// Pseudo-movimentos (não filtram xeque ao próprio rei)
-public abstract List<Position> getPossibleMoves();
-// Casas atacadas (para peão difere dos possíveis)
-public List<Position> getAttacks(){ return getPossibleMoves(); }
+// Pseudo-movimentos da casa 0..63 como bitboard de destinos (não filtram xeque ao próprio rei).
+// Versão sem alocação usada pelos caminhos quentes (geração de lances, busca).
+public abstract long moveMask(Board board, int from);
+// Casas atacadas como bitboard (para peão difere dos movimentos)
+public long attackMask(Board board, int from){ return moveMask(board, from); }
+
+
+// Adaptadores em lista de Position (UI e código legado)
+public List<Position> getPossibleMoves(Board board, Position from){
+return from == null ? new ArrayList<>() : toPositions(moveMask(board, Board.square(from)));
+}
+public List<Position> getAttacks(Board board, Position from){
+return from == null ? new ArrayList<>() : toPositions(attackMask(board, Board.square(from)));
+}
 
 
 public abstract String getSymbol(); // K,Q,R,B,N,P
+public abstract int getType();      // PAWN..KING
+// Valor de material (ver PieceSquareTables)
+public int getValue(){ return PieceSquareTables.value(getType()); }
 
 
-// Fábrica de cópia para outro board
-public abstract Piece copyFor(Board newBoard);
+@Override
+public String toString(){ return isWhite ? getSymbol() : getSymbol().toLowerCase(); }
 
 
-protected boolean empty(int r, int c){ return new Position(r,c).isValid() && board.get(new Position(r,c))==null; }
-protected boolean enemy(int r, int c){
-Position p = new Position(r,c);
-if(!p.isValid()) return false; Piece q = board.get(p);
-return q!=null && q.isWhite()!=this.isWhite;
+// Descarta do bitboard de ataques as casas ocupadas por peças da mesma cor
+protected long notOwn(Board board, long attacks){ return attacks & ~board.occupancy(isWhite); }
+// Converte um bitboard de casas em Positions (instâncias internas, ordem crescente de casa)
+protected static List<Position> toPositions(long bb){
+List<Position> out = new ArrayList<>(Long.bitCount(bb));
+for(; bb != 0; bb &= bb - 1) out.add(Position.of(Long.numberOfTrailingZeros(bb)));
+return out;
 }
-protected void addIfFreeOrEnemy(List<Position> list, int r, int c){
-Position p = new Position(r,c); if(!p.isValid()) return;
-var q = board.get(p); if(q==null || q.isWhite()!=this.isWhite) list.add(p);
 }
-}
\ No newline at end of file
@@ -11,557 +11,21 @@ import java.awt.event.ComponentEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
-import javax.swing.*;
-
-// --- CLASSES DE LÓGICA DO JOGO (MANTIDAS) ---
-
-// Representa uma posição no tabuleiro
-@SuppressWarnings("unused")
-class Position {
-    private final int row, col;
-
-    public Position(int row, int col) {
-        this.row = row;
-        this.col = col;
-    }
-
-    public int getRow() {
-        return row;
-    }
-
-    public int getColumn() {
-        return col;
-    }
-
-    // Verifica se a posição está dentro do tabuleiro
-    public boolean isValid() {
-        return row >= 0 && row < 8 && col >= 0 && col < 8;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Position position = (Position) o;
-        return row == position.row && col == position.col;
-    }
-
-    @Override
-    public int hashCode() {
-        return 31 * row + col;
-    }
-
-    @Override
-    public String toString() {
-        return "" + (char) ('a' + col) + (8 - row);
-    }
-}
-
-// Representa um movimento
-class Move {
-    final Position from, to;
-    int score = 0;
-
-    Move(Position f, Position t) {
-        this.from = f;
-        this.to = t;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Move move = (Move) o;
-        return from.equals(move.from) && to.equals(move.to);
-    }
-
-    @Override
-    public int hashCode() {
-        return 31 * from.hashCode() + to.hashCode();
-    }
-}
-// CORREÇÃO: Estrutura da classe ImageUtil
-class ImageUtil {
-    private static final Map<String, ImageIcon> cache = new HashMap<>();
-
-    public static ImageIcon getPieceIcon(boolean isWhite, char symbol, int size) {
-        // Chave de cache baseada na peça e no tamanho para evitar recarregar
-        String key = (isWhite ? "w" : "b") + Character.toUpperCase(symbol) + "_" + size;
-        if (cache.containsKey(key)) return cache.get(key);
-
-        String imgName = (isWhite ? "w" : "b") + Character.toUpperCase(symbol) + ".png";
-        java.net.URL url = null;
-        
-        try {
-            // Tenta o caminho absoluto (Assumindo que sua pasta 'img' está na raiz do Classpath)
-            url = ChessGUI.class.getResource("/img/" + imgName);
-
-            if (url == null) {
-                // Tenta um fallback sem a barra inicial, que funcionará se 'img' e 'view'
-                // estiverem no mesmo nível no Classpath (que é como a sua estrutura 'src' sugere)
-                url = ChessGUI.class.getResource("img/" + imgName);
-            }
-
-            if (url == null) {
-                // Mensagem de erro de depuração aprimorada
-                System.err.println("ERRO GRAVE: Não encontrei a imagem no classpath. Tentei: /img/" + imgName + " e img/" + imgName);
-                return null;
-            }
-
-            // 🛑 CORREÇÃO ESSENCIAL 1: Use a 'url' encontrada e VÁRIAVEL 🛑
-            // Em vez de usar um caminho fixo, use a URL que foi encontrada acima.
-            ImageIcon icon = new ImageIcon(url);
-            
-            // 🛑 CORREÇÃO ESSENCIAL 2: Redimensiona a imagem 🛑
-            // Garantindo que a peça se ajuste ao tamanho da casa (size)
-            Image scaled = icon.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH);
-            ImageIcon scaledIcon = new ImageIcon(scaled);
-            
-            cache.put(key, scaledIcon);
-            return scaledIcon;
-            
-        } catch (Exception e) {
-            System.err.println("Erro ao carregar ou dimensionar ícone (" + imgName + "): " + e.getMessage());
-            e.printStackTrace(); 
-            return null;
-        }
-    }
-}
-// Classe base para todas as peças
-abstract class Piece implements Cloneable {
-    private boolean isWhite;
-    protected String symbol;
-
-    public Piece(boolean isWhite, String symbol) {
-        this.isWhite = isWhite;
-        this.symbol = symbol;
-    }
-    
-    // Valor da peça para a avaliação Minimax
-    public abstract int getValue(); 
-
-    public boolean isWhite() {
-        return isWhite;
-    }
-
-    public String getSymbol() {
-        return symbol;
-    }
-
-    // Lista os movimentos pseudolegais (sem considerar o xeque)
-    public abstract List<Position> getPseudoLegalMoves(Board board, Position from);
-
-    // Clona a peça
-    @Override
-    public Piece clone() {
-        try {
-            return (Piece) super.clone();
-        } catch (CloneNotSupportedException e) {
-            return null; // Nunca deve acontecer
-        }
-    }
-}
-
-// Implementações de peças
-class Pawn extends Piece {
-    public Pawn(boolean isWhite) { super(isWhite, isWhite ? "P" : "p"); }
-    public int getValue() { return 10; }
-    public List<Position> getPseudoLegalMoves(Board board, Position from) {
-        List<Position> moves = new ArrayList<>();
-        int dir = isWhite() ? -1 : 1;
-
-        // Movimento para frente
-        Position forwardOne = new Position(from.getRow() + dir, from.getColumn());
-        if (forwardOne.isValid() && board.get(forwardOne) == null) {
-            moves.add(forwardOne);
-
-            // Movimento inicial de 2 casas
-            if ((isWhite() && from.getRow() == 6) || (!isWhite() && from.getRow() == 1)) {
-                Position forwardTwo = new Position(from.getRow() + 2 * dir, from.getColumn());
-                if (board.get(forwardTwo) == null) {
-                    moves.add(forwardTwo);
-                }
-            }
-        }
-
-        // Capturas
-        int[] captureCols = {-1, 1};
-        for (int c : captureCols) {
-            Position capturePos = new Position(from.getRow() + dir, from.getColumn() + c);
-            if (capturePos.isValid()) {
-                Piece target = board.get(capturePos);
-                if (target != null && target.isWhite() != isWhite()) {
-                    moves.add(capturePos);
-                }
-            }
-        }
-        return moves;
-    }
-}
-class Knight extends Piece {
-    public Knight(boolean isWhite) { super(isWhite, isWhite ? "N" : "n"); }
-    public int getValue() { return 30; }
-    public List<Position> getPseudoLegalMoves(Board board, Position from) {
-        List<Position> moves = new ArrayList<>();
-        int[] dr = {-2, -2, -1, -1, 1, 1, 2, 2};
-        int[] dc = {-1, 1, -2, 2, -2, 2, -1, 1};
-        for(int i=0; i<8; i++) {
-            Position to = new Position(from.getRow() + dr[i], from.getColumn() + dc[i]);
-            if (to.isValid()) {
-                Piece target = board.get(to);
-                if (target == null || target.isWhite() != isWhite()) {
-                    moves.add(to);
-                }
-            }
-        }
-        return moves;
-    }
-}
-class Bishop extends Piece {
-    public Bishop(boolean isWhite) { super(isWhite, isWhite ? "B" : "b"); }
-    public int getValue() { return 30; }
-    public List<Position> getPseudoLegalMoves(Board board, Position from) {
-        List<Position> moves = new ArrayList<>();
-        int[] dr = {1, 1, -1, -1};
-        int[] dc = {1, -1, 1, -1};
-        for(int i=0; i<4; i++) {
-            int r = from.getRow() + dr[i];
-            int c = from.getColumn() + dc[i];
-            while(r >= 0 && r < 8 && c >= 0 && c < 8) {
-                Position to = new Position(r, c);
-                Piece target = board.get(to);
-                if (target == null) {
-                    moves.add(to);
-                } else {
-                    if (target.isWhite() != isWhite()) {
-                        moves.add(to);
-                    }
-                    break;
-                }
-                r += dr[i];
-                c += dc[i];
-            }
-        }
-        return moves;
-    }
-}
-class Rook extends Piece {
-    public Rook(boolean isWhite) { super(isWhite, isWhite ? "R" : "r"); }
-    public int getValue() { return 50; }
-    public List<Position> getPseudoLegalMoves(Board board, Position from) {
-        List<Position> moves = new ArrayList<>();
-        int[] dr = {0, 0, 1, -1};
-        int[] dc = {1, -1, 0, 0};
-        for(int i=0; i<4; i++) {
-            int r = from.getRow() + dr[i];
-            int c = from.getColumn() + dc[i];
-            while(r >= 0 && r < 8 && c >= 0 && c < 8) {
-                Position to = new Position(r, c);
-                Piece target = board.get(to);
-                if (target == null) {
-                    moves.add(to);
-                } else {
-                    if (target.isWhite() != isWhite()) {
-                        moves.add(to);
-                    }
-                    break;
-                }
-                r += dr[i];
-                c += dc[i];
-            }
-        }
-        return moves;
-    }
-}
-class Queen extends Piece {
-    public Queen(boolean isWhite) { super(isWhite, isWhite ? "Q" : "q"); }
-    public int getValue() { return 90; }
-    public List<Position> getPseudoLegalMoves(Board board, Position from) {
-        List<Position> moves = new ArrayList<>();
-        // Rainha é a soma dos movimentos da Torre e do Bispo
-        moves.addAll(new Rook(isWhite()).getPseudoLegalMoves(board, from));
-        moves.addAll(new Bishop(isWhite()).getPseudoLegalMoves(board, from));
-        return moves;
-    }
-}
-class King extends Piece {
-    public King(boolean isWhite) { super(isWhite, isWhite ? "K" : "k"); }
-    public int getValue() { return 900; } // Valor alto para o Rei (não é capturado)
-    public List<Position> getPseudoLegalMoves(Board board, Position from) {
-        List<Position> moves = new ArrayList<>();
-        for(int dr = -1; dr <= 1; dr++) {
-            for(int dc = -1; dc <= 1; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                Position to = new Position(from.getRow() + dr, from.getColumn() + dc);
-                if (to.isValid()) {
-                    Piece target = board.get(to);
-                    if (target == null || target.isWhite() != isWhite()) {
-                        moves.add(to);
-                    }
-                }
-            }
-        }
-        return moves;
-    }
-}
-
-// Representa o tabuleiro
-class Board implements Cloneable {
-    private Piece[][] board;
-
-    public Board() {
-        board = new Piece[8][8];
-        setup();
-    }
-    
-    // Construtor privado para clonagem
-    private Board(boolean empty) {
-        board = new Piece[8][8];
-        // Se vazio, não faz setup. Usado para inicialização correta na clonagem.
-    }
-
-    // Clona o tabuleiro
-    @Override
-    public Board clone() {
-        Board newBoard = new Board(true); // Cria um tabuleiro vazio
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece piece = this.board[r][c];
-                newBoard.board[r][c] = (piece != null) ? piece.clone() : null;
-            }
-        }
-        return newBoard;
-    }
-
-    // Configuração inicial do tabuleiro
-    public void setup() {
-        // Zera o tabuleiro
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                board[r][c] = null;
-            }
-        }
-        // Peças brancas
-        board[7][0] = new Rook(true);
-        board[7][1] = new Knight(true);
-        board[7][2] = new Bishop(true);
-        board[7][3] = new Queen(true);
-        board[7][4] = new King(true);
-        board[7][5] = new Bishop(true);
-        board[7][6] = new Knight(true);
-        board[7][7] = new Rook(true);
-        for (int c = 0; c < 8; c++) {
-            board[6][c] = new Pawn(true);
-        }
-
-        // Peças pretas
-        board[0][0] = new Rook(false);
-        board[0][1] = new Knight(false);
-        board[0][2] = new Bishop(false);
-        board[0][3] = new Queen(false);
-        board[0][4] = new King(false);
-        board[0][5] = new Bishop(false);
-        board[0][6] = new Knight(false);
-        board[0][7] = new Rook(false);
-        for (int c = 0; c < 8; c++) {
-            board[1][c] = new Pawn(false);
-        }
-    }
-
-    public Piece get(Position pos) {
-        if (!pos.isValid()) {
-            return null;
-        }
-        return board[pos.getRow()][pos.getColumn()];
-    }
-
-    public void set(Position pos, Piece piece) {
-        if (!pos.isValid()) {
-            return;
-        }
-        board[pos.getRow()][pos.getColumn()] = piece;
-    }
-}
-
-// Lógica do jogo
-class Game implements Cloneable {
-    private Board board;
-    private boolean whiteToMove;
-    private List<String> history;
-    private boolean isGameOver;
-
-    public Game() {
-        newGame();
-    }
-
-    @Override
-    public Game clone() {
-        Game tempGame = new Game();
-        tempGame.board = this.board.clone();
-        tempGame.whiteToMove = this.whiteToMove;
-        tempGame.history = new ArrayList<>(this.history);
-        tempGame.isGameOver = this.isGameOver;
-        return tempGame;
-    }
-
-    public void newGame() {
-        this.board = new Board();
-        this.whiteToMove = true;
-        this.history = new ArrayList<>();
-        this.isGameOver = false;
-    }
-    
-    // Obtém todos os movimentos legais para a vez atual
-    public List<Move> getLegalMoves() {
-        // CORREÇÃO: Tipar a lista como List<Move>
-        List<Move> legalMoves = new ArrayList<>();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position from = new Position(r, c);
-                Piece piece = board.get(from);
-                if (piece != null && piece.isWhite() == whiteToMove) {
-                    for (Position to : piece.getPseudoLegalMoves(board, from)) {
-                        // Simula o movimento para verificar se o Rei ficará em xeque
-                        Game tempGame = this.clone();
-                        tempGame.board().set(to, tempGame.board().get(from));
-                        tempGame.board().set(from, null);
-
-                        // Se o Rei da cor atual NÃO estiver sob ataque no tabuleiro temporário, o movimento é legal
-                        if (!tempGame.inCheck(whiteToMove)) {
-                             legalMoves.add(new Move(from, to));
-                        }
-                    }
-                }
-            }
-        }
-        return legalMoves;
-    }
-
-    // Movimenta a peça, aplica promoção se necessário
-    public void move(Position from, Position to, Character promo) {
-        Piece piece = board.get(from);
-        if (piece == null) return;
-
-        // Se for promoção, a peça movida é substituída
-        if (piece instanceof Pawn && isPromotion(from, to) && promo != null) {
-            boolean isWhite = piece.isWhite();
-            board.set(to, createPromotedPiece(isWhite, promo));
-        } else {
-            board.set(to, piece);
-        }
-        board.set(from, null);
-
-        // Adiciona ao histórico (notação simplificada)
-        String moveStr = from.toString() + to.toString();
-        history.add(moveStr);
-
-        // Alterna o turno
-        whiteToMove = !whiteToMove;
-
-        // Verifica se o jogo acabou
-        if (getLegalMoves().isEmpty()) {
-            isGameOver = true;
-        }
-    }
-    
-    // Auxiliar para criar a peça promovida
-    private Piece createPromotedPiece(boolean isWhite, char promo) {
-        return switch (Character.toUpperCase(promo)) {
-            case 'R' -> new Rook(isWhite);
-            case 'B' -> new Bishop(isWhite);
-            case 'N' -> new Knight(isWhite);
-            default -> new Queen(isWhite); // Padrão é Rainha
-        };
-    }
-
-    public boolean isGameOver() {
-        return isGameOver;
-    }
-
-    public boolean whiteToMove() {
-        return whiteToMove;
-    }
-
-    // VERIFICAÇÃO DE XEQUE
-    public boolean inCheck(boolean isWhite) {
-        Position kingPos = findKing(isWhite);
-        if (kingPos == null) return false;
-
-        return isUnderAttack(kingPos, !isWhite);
-    }
-    
-    // Verifica se uma posição está sob ataque de uma determinada cor (atacanteIsWhite)
-    private boolean isUnderAttack(Position pos, boolean attackerIsWhite) {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position from = new Position(r, c);
-                Piece piece = board.get(from);
-                if (piece != null && piece.isWhite() == attackerIsWhite) {
-                    // Cuidado: Gerar movimentos pseudolegais da peça atacante e verificar se 'pos' está entre eles
-                    // Isso é o suficiente para a maioria das peças, mas o Rei atacante deve ser tratado com cuidado
-                    if (piece.getPseudoLegalMoves(board, from).contains(pos)) {
-                        // Exceção do Peão: para ataques, só olhamos as capturas
-                        if (piece instanceof Pawn) {
-                             int dir = piece.isWhite() ? -1 : 1;
-                             int[] captureCols = {-1, 1};
-                             for (int dc : captureCols) {
-                                 Position capturePos = new Position(from.getRow() + dir, from.getColumn() + dc);
-                                 if (capturePos.equals(pos)) return true;
-                             }
-                             // Se o peão não ataca a posição, continue (para evitar falsos positivos)
-                             continue;
-                        }
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-    // Encontra a posição do Rei da cor especificada
-    public Position findKing(boolean isWhite) {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece p = board.get(pos);
-                if (p instanceof King && p.isWhite() == isWhite) {
-                    return pos;
-                }
-            }
-        }
-        return null; 
-    }
-
-    public Board board() {
-        return board;
-    }
-
-    public List<String> history() {
-        return history;
-    }
-
-    // Verifica se um movimento é uma captura (para avaliação da IA)
-    public boolean isCaptura(Position to) {
-        return board.get(to) != null;
-    }
-
-    // Verifica se um movimento é uma promoção
-    public boolean isPromotion(Position from, Position to) {
-        Piece p = board.get(from);
-        if (p instanceof Pawn) {
-            return (p.isWhite() && to.getRow() == 0) || (!p.isWhite() && to.getRow() == 7);
-        }
-        return false;
-    }
-}
+import java.util.Objects;
+import controller.ChessAI;
+import controller.EngineService;
+import controller.Game;
+import controller.GameStatus;
+import controller.RulesEngine;
+import model.board.Board;
+import model.board.Move;
+import model.board.MoveList;
+import model.board.Position;
+import model.pieces.Pawn;
+import model.pieces.Piece;
 
 // --- CLASSE PRINCIPAL ---
 
@@ -569,80 +33,6 @@ public class ChessGUI extends JFrame {
     private static final long serialVersionUID = 1L;
     
     
-    // --- Valores de Posição (Peça/Posição) para IA (Exemplo Simples) ---
-    private static final int[][] PAWN_POS_TABLE = {
-        {0, 0, 0, 0, 0, 0, 0, 0},
-        {50, 50, 50, 50, 50, 50, 50, 50},
-        {10, 10, 20, 30, 30, 20, 10, 10},
-        {5, 5, 10, 25, 25, 10, 5, 5},
-        {0, 0, 0, 20, 20, 0, 0, 0},
-        {5, -5, -10, 0, 0, -10, -5, 5},
-        {5, 10, 10, -20, -20, 10, 10, 5},
-        {0, 0, 0, 0, 0, 0, 0, 0}
-    };
-    private static final int[][] KNIGHT_POS_TABLE = {
-        {-50, -40, -30, -30, -30, -30, -40, -50},
-        {-40, -20, 0, 5, 5, 0, -20, -40},
-        {-30, 5, 10, 15, 15, 10, 5, -30},
-        {-30, 0, 15, 20, 20, 15, 0, -30},
-        {-30, 5, 15, 20, 20, 15, 5, -30},
-        {-30, 0, 10, 15, 15, 10, 0, -30},
-        {-40, -20, 0, 0, 0, 0, -20, -40},
-        {-50, -40, -30, -30, -30, -30, -40, -50}
-    };
-    // CORREÇÃO: Adicionando as tabelas de posição que faltavam (apenas exemplos simples)
-    private static final int[][] BISHOP_POS_TABLE = {
-        {-20, -10, -10, -10, -10, -10, -10, -20},
-        {-10, 0, 0, 0, 0, 0, 0, -10},
-        {-10, 0, 5, 10, 10, 5, 0, -10},
-        {-10, 5, 5, 10, 10, 5, 5, -10},
-        {-10, 0, 10, 10, 10, 10, 0, -10},
-        {-10, 10, 10, 10, 10, 10, 10, -10},
-        {-10, 5, 0, 0, 0, 0, 5, -10},
-        {-20, -10, -10, -10, -10, -10, -10, -20}
-    };
-    private static final int[][] ROOK_POS_TABLE = {
-        {0, 0, 0, 0, 0, 0, 0, 0},
-        {5, 10, 10, 10, 10, 10, 10, 5},
-        {-5, 0, 0, 0, 0, 0, 0, -5},
-        {-5, 0, 0, 0, 0, 0, 0, -5},
-        {-5, 0, 0, 0, 0, 0, 0, -5},
-        {-5, 0, 0, 0, 0, 0, 0, -5},
-        {-5, 0, 0, 0, 0, 0, 0, -5},
-        {0, 0, 0, 5, 5, 0, 0, 0}
-    };
-    private static final int[][] QUEEN_POS_TABLE = {
-        {-20, -10, -10, -5, -5, -10, -10, -20},
-        {-10, 0, 0, 0, 0, 0, 0, -10},
-        {-10, 0, 5, 5, 5, 5, 0, -10},
-        {-5, 0, 5, 5, 5, 5, 0, -5},
-        {0, 0, 5, 5, 5, 5, 0, -5},
-        {-10, 5, 5, 5, 5, 5, 0, -10},
-        {-10, 0, 5, 0, 0, 0, 0, -10},
-        {-20, -10, -10, -5, -5, -10, -10, -20}
-    };
-    private static final int[][] KING_MID_POS_TABLE = { // Meio Jogo
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-20, -30, -30, -40, -40, -30, -30, -20},
-        {-10, -20, -20, -20, -20, -20, -20, -10},
-        {20, 20, 0, 0, 0, 0, 20, 20},
-        {20, 30, 10, 0, 0, 10, 30, 20}
-    };
-    private static final int[][] KING_END_POS_TABLE = { // Final de Jogo
-        {-50, -30, -30, -30, -30, -30, -30, -50},
-        {-30, -10, -10, -10, -10, -10, -10, -30},
-        {-30, -10, 20, 30, 30, 20, -10, -30},
-        {-30, -10, 30, 40, 40, 30, -10, -30},
-        {-30, -10, 30, 40, 40, 30, -10, -30},
-        {-30, -10, 20, 30, 30, 20, -10, -30},
-        {-30, -30, 0, 0, 0, 0, -30, -30},
-        {-50, -30, -30, -30, -30, -30, -30, -50}
-    };
-    // ... incluir outras tabelas de posição (Bishop, Rook, Queen, King)
-
     // --- Config de cores/styles ---
     // AZUL GELO (CASA CLARA)
     private static final Color LIGHT_SQ = new Color(200, 220, 240); 
@@ -660,7 +50,8 @@ public class ChessGUI extends JFrame {
     private static final Border BORDER_LEGAL = new MatteBorder(4, 4, 4, 4, HILITE_LEGAL); 
     private static final Border BORDER_LASTMOVE = new MatteBorder(2, 2, 2, 2, HILITE_LASTMOVE);
 
-    private final Game game;
+    // Motor de regras único (controller.Game), compartilhado com a IA
+    private final RulesEngine game;
 
     private final JPanel boardPanel;
     private final JButton[][] squares = new JButton[8][8];
@@ -674,6 +65,7 @@ public class ChessGUI extends JFrame {
 
     // Menu / controles
     private JCheckBoxMenuItem aiPlaysBlack; 
+    private JCheckBoxMenuItem ponderItem;
     private JComboBox<String> aiLevelCombo; 
     private JMenuItem newGameItem, quitItem;
 
@@ -685,17 +77,33 @@ public class ChessGUI extends JFrame {
         "Mestre (Prof. 4)", 4
     );
     private int currentAIDepth = 3; 
+    // Tempo máximo por lance da IA: ao estourar, joga o lance da última profundidade completa
+    private static final long AI_TIME_LIMIT_MS = 3000;
+    // -Dchess.aiStats=true: imprime no console as estatísticas de cada busca da IA (ChessAI.stats())
+    private static final boolean PRINT_AI_STATS = Boolean.getBoolean("chess.aiStats");
 
     // Seleção atual e movimentos legais
     private Position selected = null;
-    private List<Position> legalForSelected = new ArrayList<>();
+    private long legalForSelected = 0L; // bitboard dos destinos legais da peça selecionada
+
+    // Índice de lances da posição exibida: destinos legais (bitboard) por casa de origem e
+    // casa do rei em xeque (-1 se nenhum). Reconstruído só quando a posição muda.
+    private final long[] targetsFrom = new long[64];
+    private int checkedKingSquare = -1;
+    private long indexedKey;
+    private int indexedPly = -1;
 
     // Realce do último lance
     private Position lastFrom = null, lastTo = null;
 
     // IA
     private boolean aiThinking = false;
-    private final Map<String, Move> openingBook = new HashMap<>();
+    private static final int AI_HASH_MB = 64; // tamanho da tabela de transposição da IA
+    private final ChessAI ai = new ChessAI(AI_HASH_MB); // busca + livro de aberturas (roda na thread da IA)
+    // Thread de busca única e persistente: mantém a tabela de transposição e o histórico entre os lances
+    private final EngineService engine = new EngineService(ai);
+    private long aiGeneration = -1; // geração do pedido de busca em andamento (-1 = nenhum)
+    private int ponderedMove = 0;   // resposta esperada do jogador sendo ponderada (0 = nenhuma)
 
 
     @SuppressWarnings("unused")
@@ -709,9 +117,6 @@ public class ChessGUI extends JFrame {
         } catch (Exception ignored) {
         }
 
-        // Carrega o livro de aberturas
-        loadOpeningBook();
-
         this.game = new Game();
 
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
@@ -737,7 +142,7 @@ public class ChessGUI extends JFrame {
                 b.setBorderPainted(true);
                 b.setContentAreaFilled(true);
                 b.setFont(b.getFont().deriveFont(Font.BOLD, 24f));
-                b.addActionListener(e -> handleClick(new Position(rr, cc)));
+                b.addActionListener(e -> handleClick(Position.of(rr, cc)));
                 squares[r][c] = b;
                 boardPanel.add(b);
             }
@@ -842,6 +247,16 @@ public class ChessGUI extends JFrame {
         aiPlaysBlack.setSelected(true); 
         aiPlaysBlack.addActionListener(e -> doNewGame()); // Inicia novo jogo ao mudar lado
 
+        // Ponderação: a IA continua pensando durante a vez do jogador, na resposta que espera dele
+        ponderItem = new JCheckBoxMenuItem("IA pensa na vez do jogador");
+        ponderItem.setSelected(true);
+        ponderItem.addActionListener(e -> {
+            if (!ponderItem.isSelected() && ponderedMove != 0) {
+                engine.cancel();
+                ponderedMove = 0;
+            }
+        });
+
         JMenu depthMenu = new JMenu("Nível da IA");
         
         String[] levels = LEVEL_TO_DEPTH.keySet().toArray(new String[0]);
@@ -854,6 +269,22 @@ public class ChessGUI extends JFrame {
         });
         depthMenu.add(aiLevelCombo);
 
+        // Threads da busca (Lazy SMP): 1, 2, 4, ... até o número de processadores
+        depthMenu.addSeparator();
+        ButtonGroup threadGroup = new ButtonGroup();
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int n = 1; n < cores; n *= 2) threadCounts.add(n);
+        threadCounts.add(cores);
+        for (int n : threadCounts) {
+            final int threads = n;
+            JRadioButtonMenuItem item = new JRadioButtonMenuItem(n == 1 ? "1 thread" : n + " threads");
+            item.setSelected(n == ai.threads());
+            item.addActionListener(e -> ai.setThreads(threads)); // vale a partir da próxima busca
+            threadGroup.add(item);
+            depthMenu.add(item);
+        }
+
         quitItem = new JMenuItem("Sair");
         quitItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Q, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
         quitItem.addActionListener(e -> dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING)));
@@ -861,6 +292,7 @@ public class ChessGUI extends JFrame {
         gameMenu.add(newGameItem);
         gameMenu.addSeparator();
         gameMenu.add(aiPlaysBlack);
+        gameMenu.add(ponderItem);
         gameMenu.add(depthMenu);
         gameMenu.addSeparator();
         gameMenu.add(quitItem);
@@ -921,8 +353,12 @@ public class ChessGUI extends JFrame {
 
     private void doNewGame() {
         selected = null;
-        legalForSelected.clear();
+        legalForSelected = 0L;
         lastFrom = lastTo = null;
+        // Cancela a busca do jogo anterior: seu resultado, se chegar, é descartado
+        engine.cancel();
+        aiGeneration = -1;
+        ponderedMove = 0;
         aiThinking = false;
         game.newGame();
         refresh();
@@ -940,19 +376,12 @@ public class ChessGUI extends JFrame {
         if (selected == null) {
             if (p != null && p.isWhite() == game.whiteToMove()) {
                 selected = clicked;
-                legalForSelected = new ArrayList<>();
-                // Encontra movimentos legais para a peça selecionada
-                for(Move m : game.getLegalMoves()) {
-                    if (m.from.equals(selected)) {
-                        legalForSelected.add(m.to);
-                    }
-                }
+                // Movimentos legais da peça selecionada (índice da posição)
+                legalForSelected = targetsFrom(selected);
             }
         } else {
             // Se o movimento for legal
-            Move playerMove = new Move(selected, clicked);
-            List<Move> allLegalMoves = game.getLegalMoves();
-            boolean isLegal = allLegalMoves.contains(playerMove);
+            boolean isLegal = (legalForSelected & bit(clicked)) != 0;
 
             if (isLegal) {
                 Character promo = null;
@@ -963,33 +392,65 @@ public class ChessGUI extends JFrame {
                 lastFrom = selected;
                 lastTo = clicked;
 
+                // Jogou o lance que a IA estava ponderando?
+                boolean ponderHit = ponderedMove != 0
+                        && Position.of(Move.fromSquare(ponderedMove)).equals(selected)
+                        && Position.of(Move.toSquare(ponderedMove)).equals(clicked)
+                        && Objects.equals(Move.promotionSymbol(ponderedMove), promo);
+                ponderedMove = 0;
+
                 game.move(selected, clicked, promo);
 
                 selected = null;
-                legalForSelected.clear();
+                legalForSelected = 0L;
 
                 refresh();
                 maybeAnnounceEnd();
-                maybeTriggerAI();
+                maybeTriggerAI(ponderHit);
             } else if (p != null && p.isWhite() == game.whiteToMove()) {
                 // Nova seleção de peça (se for da mesma cor)
                 selected = clicked;
-                legalForSelected = new ArrayList<>();
-                // Encontra movimentos legais para a nova peça selecionada
-                for(Move m : game.getLegalMoves()) {
-                    if (m.from.equals(selected)) {
-                        legalForSelected.add(m.to);
-                    }
-                }
+                // Movimentos legais da nova peça selecionada
+                legalForSelected = targetsFrom(selected);
             } else {
                 // Clicou em uma casa inválida (ou na peça do oponente/casa vazia), deseleciona
                 selected = null;
-                legalForSelected.clear();
+                legalForSelected = 0L;
             }
         }
         refresh();
     }
     
+    // ----------------- Índice de lances da posição -----------------
+
+    // Reconstrói o índice se a posição exibida mudou (lance, novo jogo); senão não faz nada
+    private void updateMoveIndex() {
+        long key = game.positionKey();
+        int ply = game.history().size();
+        if (key == indexedKey && ply == indexedPly) return;
+        indexedKey = key;
+        indexedPly = ply;
+
+        Arrays.fill(targetsFrom, 0L);
+        if (!game.isGameOver()) {
+            MoveList moves = game.allLegalMoves();
+            for (int i = 0; i < moves.size(); i++) {
+                int m = moves.get(i);
+                targetsFrom[Move.fromSquare(m)] |= 1L << Move.toSquare(m);
+            }
+        }
+        checkedKingSquare = game.status().isCheck() ? game.board().kingSquare(game.whiteToMove()) : -1;
+    }
+
+    private long targetsFrom(Position from) {
+        updateMoveIndex();
+        return targetsFrom[Board.square(from)];
+    }
+
+    private static long bit(Position p) {
+        return 1L << Board.square(p);
+    }
+
     // ----------------- Utilitários da GUI -----------------
     
     private Character askPromotion() {
@@ -1013,6 +474,8 @@ public class ChessGUI extends JFrame {
      * 
      */
     private void refresh() {
+    updateMoveIndex();
+
     // 🛑 Adicione esta verificação para evitar erros de divisão por zero ou redimensionamento
     if (boardPanel.getWidth() == 0 || boardPanel.getHeight() == 0) return;
     
@@ -1031,7 +494,7 @@ public class ChessGUI extends JFrame {
     for (int r = 0; r < 8; r++) {
         for (int c = 0; c < 8; c++) {
             JButton b = squares[r][c];
-            Position pos = new Position(r, c);
+            Position pos = Position.of(r, c);
             Piece p = game.board().get(pos);
 
             // 🛑 CORREÇÃO 2: Garante que o botão não tenha texto (para centralizar o ícone) 🛑
@@ -1055,9 +518,9 @@ public class ChessGUI extends JFrame {
                 border = BORDER_LASTMOVE;
             }
             // 2. Destaque de Xeque... (seu código continua)
-            if (p instanceof King && game.inCheck(p.isWhite())) {
+            if (Board.square(pos) == checkedKingSquare) {
                 bgColor = Color.RED.darker();
-                if (legalForSelected.contains(pos)) {
+                if ((legalForSelected & bit(pos)) != 0) {
                     bgColor = HILITE_CHECK_LEGAL; 
                 }
             }
@@ -1066,7 +529,7 @@ public class ChessGUI extends JFrame {
                 border = BORDER_SELECTED;
             }
             // 4. Destaque de Movimento Legal
-            if (legalForSelected.contains(pos) && !pos.equals(selected)) {
+            if ((legalForSelected & bit(pos)) != 0 && !pos.equals(selected)) {
                 if (game.board().get(pos) != null) {
                     bgColor = Color.ORANGE.darker();
                 } else {
@@ -1106,7 +569,7 @@ public class ChessGUI extends JFrame {
         }
         if (game.isGameOver()) {
             statusText = "FIM DE JOGO!";
-        } else if (game.inCheck(game.whiteToMove())) {
+        } else if (game.status().isCheck()) {
             statusText = "Xeque! Vez das " + turn;
         }
         status.setText(statusText);
@@ -1135,217 +598,85 @@ public class ChessGUI extends JFrame {
         historyTextArea.setCaretPosition(historyTextArea.getDocument().getLength());
 
         // Avaliação (mostra a avaliação do tabuleiro atual)
-        int score = evaluateBoard(game.board(), game.whiteToMove());
+        int score = ChessAI.evaluateBoard(game.board());
         String scoreStr = (score > 0) ? "+" + (score / 10.0) : "" + (score / 10.0);
         scoreLabel.setText("Avaliação: " + scoreStr);
     }
     
     private void maybeAnnounceEnd() {
          if (game.isGameOver()) {
-            String message = game.inCheck(!game.whiteToMove()) ? 
+            // Fim de jogo: nada mais a buscar (para também uma ponderação em andamento)
+            engine.cancel();
+            aiGeneration = -1;
+            ponderedMove = 0;
+            String message = game.status() == GameStatus.CHECKMATE ? 
                 "Xeque-Mate! " + (game.whiteToMove() ? "Pretas" : "Brancas") + " Venceram!" :
                 "Empate por Afogamento.";
             JOptionPane.showMessageDialog(this, message, "FIM DE JOGO", JOptionPane.INFORMATION_MESSAGE);
         }
     }
 
-    // ----------------- Lógica da IA (Minimax) -----------------
+    // ----------------- Lógica da IA (Negamax) -----------------
     
     private void maybeTriggerAI() {
+        maybeTriggerAI(false);
+    }
+
+    /** @param ponderHit o jogador fez o lance ponderado: aproveita a busca que já está em andamento */
+    private void maybeTriggerAI(boolean ponderHit) {
         // A IA só joga com as pretas e se for o turno dela
         if (aiPlaysBlack.isSelected() && !game.whiteToMove() && !game.isGameOver()) {
             aiThinking = true;
             status.setText("IA pensando...");
 
-            // Executa a IA em uma thread separada para não travar a GUI
-            new SwingWorker<Move, Void>() {
-                @Override
-                protected Move doInBackground() {
-                    return getAIMove(currentAIDepth);
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        Move bestMove = get();
-                        if (bestMove != null) {
-                            lastFrom = bestMove.from;
-                            lastTo = bestMove.to;
-                            // A IA não promove um peão, a não ser que seja para Rainha (simplificação)
-                            Character promo = game.isPromotion(bestMove.from, bestMove.to) ? 'Q' : null;
-                            game.move(bestMove.from, bestMove.to, promo);
-                        }
-                    } catch (Exception e) {
-                        System.err.println("Erro na execução da IA: " + e.getMessage());
-                    } finally {
-                        aiThinking = false;
-                        refresh();
-                        maybeAnnounceEnd();
-                    }
-                }
-            }.execute();
+            long generation = ponderHit ? engine.ponderHit(AI_TIME_LIMIT_MS) : -1;
+            // Sem ponderação acertada, uma busca nova (que aborta a ponderação, mas aproveita
+            // a tabela de transposição aquecida por ela). Roda sobre uma cópia do jogo exibido.
+            aiGeneration = generation != -1 ? generation
+                    : engine.submit(game.copy(), currentAIDepth, AI_TIME_LIMIT_MS, this::onAIResult);
         }
     }
-    
-    private void loadOpeningBook() {
-        // Exemplo de livro de aberturas (apenas para teste/exemplo)
-        openingBook.put("e2e4", new Move(new Position(6, 4), new Position(4, 4)));
-        openingBook.put("e2e4 e7e5", new Move(new Position(1, 6), new Position(3, 6))); // Nf3
-        openingBook.put("e2e4 c7c5", new Move(new Position(6, 3), new Position(4, 3))); // d4
-    }
-
-    private Move getAIMove(int depth) {
-        // Tenta movimento do livro de aberturas
-        String currentHistory = String.join(" ", game.history());
-        if (openingBook.containsKey(currentHistory)) {
-            return openingBook.get(currentHistory);
-        }
-
-        // Se não houver livro, calcula o melhor lance
-        // CORREÇÃO: Tipar a lista como List<Move>
-        List<Move> allMoves = game.getLegalMoves();
-        if (allMoves.isEmpty()) return null;
 
-        // Otimização: priorizar capturas para o Alpha-Beta Pruning
-        // CORREÇÃO DE ERRO: A lista 'allMoves' é do tipo List<Move>
-        allMoves.sort(Comparator.comparingInt((Move m) -> game.isCaptura(m.to) ? 1 : 0).reversed());
-
-        Move bestMove = null;
-        int bestScore = Integer.MIN_VALUE;
-
-        for (Move m : allMoves) {
-            Game nextGame = game.clone();
-            // A IA só move a peça, não pede promoção (simplificação, assume Queen)
-            Character promo = nextGame.isPromotion(m.from, m.to) ? 'Q' : null;
-            nextGame.move(m.from, m.to, promo);
-
-            // Chamada Minimax
-            int score = minimax(nextGame, depth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE, nextGame.whiteToMove());
-            
-            // Inverte o score para a perspectiva da cor que está movendo (preta)
-            // Se for vez das Pretas (IA), minimizamos (score deve ser menor que o melhor score)
-            // if (!game.whiteToMove()) score = -score; // Não precisa inverter se o Minimax é chamado corretamente
-
-            if (score > bestScore) {
-                bestScore = score;
-                bestMove = m;
-            }
-        }
-        return bestMove;
+    // Na thread do serviço: resultado de uma busca (ou de uma ponderação acertada)
+    // (dados copiados pelo serviço: não lê o ChessAI, que pode já estar em outra busca)
+    private void onAIResult(long generation, EngineService.Result result) {
+        // Estatísticas da busca no console (podas, rebuscas, tabela de transposição), se pedidas
+        if (PRINT_AI_STATS) System.out.println("IA: prof. " + result.completedDepth + ", " + result.elapsedMillis + " ms, " + result.stats);
+        SwingUtilities.invokeLater(() -> applyAIMove(generation, result.move, result.ponderMove));
     }
 
-    // Minimax com Poda Alpha-Beta
-    private int minimax(Game current, int depth, int alpha, int beta, boolean maximizingPlayer) {
-        if (depth == 0 || current.isGameOver()) {
-            return evaluateBoard(current.board(), maximizingPlayer); // Retorna a avaliação do tabuleiro (a cor que está jogando)
-        }
-
-        // CORREÇÃO: Tipar a lista como List<Move>
-        List<Move> moves = current.getLegalMoves();
-        if (moves.isEmpty()) {
-            return evaluateBoard(current.board(), maximizingPlayer);
-        }
-
-        // Otimização: priorizar capturas
-        // CORREÇÃO DE ERRO: A lista 'moves' é do tipo List<Move>
-        moves.sort(Comparator.comparingInt((Move m) -> current.isCaptura(m.to) ? 1 : 0).reversed());
-
-        if (maximizingPlayer) { // MAX (para a IA que quer o maior score)
-            int maxEval = Integer.MIN_VALUE;
-            for (Move m : moves) {
-                Game nextGame = current.clone();
-                Character promo = nextGame.isPromotion(m.from, m.to) ? 'Q' : null;
-                nextGame.move(m.from, m.to, promo);
-                
-                int eval = minimax(nextGame, depth - 1, alpha, beta, !maximizingPlayer);
-                maxEval = Math.max(maxEval, eval);
-                alpha = Math.max(alpha, eval);
-                if (beta <= alpha) {
-                    break; // Poda Beta
-                }
-            }
-            return maxEval;
-        } else { // MIN (para o humano que quer o menor score para a IA)
-            int minEval = Integer.MAX_VALUE;
-            for (Move m : moves) {
-                Game nextGame = current.clone();
-                Character promo = nextGame.isPromotion(m.from, m.to) ? 'Q' : null;
-                nextGame.move(m.from, m.to, promo);
-                
-                int eval = minimax(nextGame, depth - 1, alpha, beta, !maximizingPlayer);
-                minEval = Math.min(minEval, eval);
-                beta = Math.min(beta, eval);
-                if (beta <= alpha) {
-                    break; // Poda Alpha
-                }
-            }
-            return minEval;
-        }
+    // Começa a ponderar a resposta esperada do jogador, enquanto ele pensa
+    private void startPondering(int expectedReply) {
+        if (!ponderItem.isSelected() || expectedReply == 0 || game.isGameOver()) return;
+        RulesEngine position = game.copy();
+        position.makeMove(expectedReply);
+        if (position.status().isTerminal()) return; // a resposta esperada encerra o jogo
+        ponderedMove = expectedReply;
+        engine.ponder(position, currentAIDepth, this::onAIResult);
     }
-    
-    // Função de Avaliação Simples (Material + Posição)
-    private int evaluateBoard(Board board, boolean whiteIsMaximizer) {
-        int totalScore = 0;
-        
-        // Ponto final de jogo simples (baseado em peças restantes)
-        int materialCount = 0;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = board.get(new Position(r, c));
-                if (p != null) materialCount += p.getValue();
-            }
-        }
-        boolean isEndGame = materialCount < 300; // Limite simples
-        
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece p = board.get(pos);
-                if (p != null) {
-                    int pieceValue = p.getValue();
-                    int posValue = getPositionalValue(p, r, c, isEndGame);
-                    
-                    int pieceScore = pieceValue + posValue;
-                    
-                    if (p.isWhite()) {
-                        totalScore += pieceScore;
-                    } else {
-                        totalScore -= pieceScore;
-                    }
-                }
+
+    /** Aplica o lance da IA na EDT, se o pedido ainda for o atual (senão, é de um jogo anterior). */
+    private void applyAIMove(long generation, int bestMove, int expectedReply) {
+        if (generation != aiGeneration || !engine.isCurrent(generation)) return;
+        aiGeneration = -1;
+        try {
+            if (bestMove != 0) {
+                Position from = Position.of(Move.fromSquare(bestMove));
+                Position to = Position.of(Move.toSquare(bestMove));
+                lastFrom = from;
+                lastTo = to;
+                game.move(from, to, Move.promotionSymbol(bestMove));
             }
+        } catch (Exception e) {
+            System.err.println("Erro na execução da IA: " + e.getMessage());
+        } finally {
+            aiThinking = false;
+            refresh();
+            maybeAnnounceEnd();
         }
-        
-        // O score final é do ponto de vista das Brancas (positivas = boas para Brancas)
-        // Como a IA é Pretas, ela tentará minimizá-lo (torná-lo negativo)
-        // O minimax trata a perspectiva da cor que está movendo, então o score é do ponto de vista do maximizador
-        return totalScore; 
+        if (bestMove != 0) startPondering(expectedReply);
     }
     
-    // Retorna o valor posicional da peça
-    @SuppressWarnings("unused")
-    private int getPositionalValue(Piece piece, int r, int c, boolean isEndGame) {
-        int row = piece.isWhite() ? r : 7 - r; // Inverte para peças pretas
-        int col = c;
-        
-        int[][] table;
-        if (piece instanceof Pawn) table = PAWN_POS_TABLE;
-        else if (piece instanceof Knight) table = KNIGHT_POS_TABLE;
-        else if (piece instanceof Bishop) table = BISHOP_POS_TABLE;
-        else if (piece instanceof Rook) table = ROOK_POS_TABLE;
-        else if (piece instanceof Queen) table = QUEEN_POS_TABLE;
-        else if (piece instanceof King) table = isEndGame ? KING_END_POS_TABLE : KING_MID_POS_TABLE;
-        else return 0; // Outras peças (se houver)
-
-        // Se a peça for preta, inverte o índice da linha na tabela, mantendo o valor da coluna
-        if (!piece.isWhite()) {
-            return table[7 - r][c];
-        } else {
-            return table[r][c];
-        }
-    }
-
-
     // ----------------- MAIN -----------------
     public static void main(String[] args) {
         SwingUtilities.invokeLater(ChessGUI::new);